@@ -25,14 +25,33 @@
 package org.jenkinsci.plugins.pipeline.utility.steps;
 
 import hudson.FilePath;
+import hudson.remoting.RemoteOutputStream;
+import hudson.util.io.Archiver;
 import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.output.TeeOutputStream;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 public abstract class AbstractFileCallable<T> extends MasterToSlaveFileCallable<T> {
+    private static final int SINK_BUFFER_SIZE = 64 * 1024;
+
     private FilePath destination;
+    private RemoteOutputStream sink;
+    private boolean keepDestination;
     private boolean allowExtractionOutsideDestination = false;
+    private String[] files;
 
     public FilePath getDestination() {
         return destination;
@@ -42,6 +61,167 @@ public abstract class AbstractFileCallable<T> extends MasterToSlaveFileCallable<
         this.destination = destination;
     }
 
+    /**
+     * A stream to write the content to instead of the destination file, e.g. to a file on the controller.
+     *
+     * @return the sink or null to write to the destination
+     */
+    public RemoteOutputStream getSink() {
+        return sink;
+    }
+
+    /**
+     * A stream to write the content to instead of the destination file.
+     *
+     * @param sink the sink or null to write to the destination
+     * @param keepDestination if the content should be written to the destination file as well
+     */
+    public void setSink(RemoteOutputStream sink, boolean keepDestination) {
+        this.sink = sink;
+        this.keepDestination = keepDestination;
+    }
+
+    /**
+     * Opens the sink and/or the destination for writing.
+     * The sink is written to through a buffer so the content is sent in large chunks.
+     *
+     * @return the stream to write the content to
+     * @throws IOException if the destination can't be opened
+     * @throws InterruptedException if interrupted while opening the destination
+     */
+    protected OutputStream writeDestination() throws IOException, InterruptedException {
+        if (sink == null) {
+            return destination.write();
+        }
+        OutputStream out = new BufferedOutputStream(sink, SINK_BUFFER_SIZE);
+        if (!keepDestination) {
+            return out;
+        }
+        try {
+            return new TeeOutputStream(out, destination.write());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The destination file if {@link #writeDestination()} writes to it,
+     * e.g. to not include it in an archive of its own directory.
+     *
+     * @return the destination file, or nothing if only the sink is written to
+     */
+    protected List<Path> getLocalDestinations() {
+        if (sink != null && !keepDestination) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(Paths.get(destination.getRemote()));
+    }
+
+    /**
+     * The files to archive instead of scanning the directory.
+     *
+     * @return the paths relative to the directory, or null to scan it
+     */
+    public String[] getFiles() {
+        return files;
+    }
+
+    /**
+     * The files to archive instead of scanning the directory, sent to the agent along with the callable.
+     *
+     * @param files the paths relative to the directory, or null to scan it
+     */
+    public void setFiles(List<String> files) {
+        this.files = files == null ? null : files.toArray(new String[0]);
+    }
+
+    /**
+     * Hands the files below a directory that are selected by the matcher to an archiver,
+     * skipping the files the archive is being written to.
+     * When {@link #getFiles()} are set only those are handed to the archiver, without scanning the directory.
+     *
+     * @param dir the directory to archive
+     * @param matcher the files to select
+     * @param scanThreads the number of threads to scan the directory with
+     * @param sorted if the files should be sorted with {@link #sortPaths(String[])}, which needs all of them up front
+     * @param archiver the archiver
+     * @param skip the files the archive is written to
+     * @throws IOException if the directory can't be scanned or a file can't be archived
+     * @throws InterruptedException if interrupted while scanning
+     */
+    protected void archiveFiles(File dir, GlobMatcher matcher, int scanThreads, boolean sorted, Archiver archiver,
+                                List<Path> skip) throws IOException, InterruptedException {
+        if (files != null) {
+            archiveListedFiles(dir, files, sorted, archiver, skip);
+            return;
+        }
+        ParallelDirectoryScanner scanner = new ParallelDirectoryScanner(dir, matcher, scanThreads);
+        ParallelDirectoryScanner.Visitor visitor = path -> {
+            File toArchive = new File(dir, path).getCanonicalFile();
+            for (Path target : skip) {
+                if (Files.isSameFile(toArchive.toPath(), target)) {
+                    return;
+                }
+            }
+            archiver.visit(toArchive, path);
+        };
+        if (sorted) {
+            String[] files = scanner.getIncludedFiles();
+            sortPaths(files);
+            for (String path : files) {
+                visitor.visit(path);
+            }
+        } else {
+            scanner.scan(visitor);
+        }
+    }
+
+    private static void archiveListedFiles(File dir, String[] files, boolean sorted, Archiver archiver, List<Path> skip)
+            throws IOException, InterruptedException {
+        Path base = dir.toPath().toAbsolutePath().normalize();
+        String[] paths = new String[files.length];
+        for (int i = 0; i < files.length; i++) {
+            Path path = base.resolve(files[i]).normalize();
+            if (path.equals(base) || !path.startsWith(base)) {
+                throw new IOException(files[i] + " is not inside " + dir + ".");
+            }
+            paths[i] = base.relativize(path).toString();
+        }
+        if (sorted) {
+            sortPaths(paths);
+        }
+        for (String path : paths) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            File toArchive = new File(dir, path);
+            if (!Files.exists(toArchive.toPath(), LinkOption.NOFOLLOW_LINKS)) {
+                throw new FileNotFoundException(toArchive + " does not exist.");
+            }
+            toArchive = toArchive.getCanonicalFile();
+            boolean target = false;
+            for (Path destination : skip) {
+                if (Files.isSameFile(toArchive.toPath(), destination)) {
+                    target = true;
+                    break;
+                }
+            }
+            if (!target) {
+                archiver.visit(toArchive, path);
+            }
+        }
+    }
+
+    /**
+     * Sorts relative paths by their <code>/</code> separated form, so they are in the same order on every platform.
+     *
+     * @param paths the paths to sort in place
+     */
+    public static void sortPaths(String[] paths) {
+        Arrays.sort(paths, Comparator.comparing(path -> path.replace('\\', '/')));
+    }
+
     /**
      * SECURITY-2169 escape hatch.
      * Controlled by {@link DecompressStepExecution#ALLOW_EXTRACTION_OUTSIDE_DESTINATION}.
@@ -56,6 +236,16 @@ public abstract class AbstractFileCallable<T> extends MasterToSlaveFileCallable<
         this.allowExtractionOutsideDestination = allowExtractionOutsideDestination;
     }
 
+    /**
+     * The destination as a {@link LocalDestination} for extracting without per entry {@link FilePath} overhead.
+     * Assumes the destination is on the local host.
+     *
+     * @return the local destination
+     */
+    protected LocalDestination getLocalDestination() {
+        return new LocalDestination(new File(destination.getRemote()), allowExtractionOutsideDestination);
+    }
+
     protected boolean isDescendantOfDestination(FilePath f) throws IOException {
         if (allowExtractionOutsideDestination) {
             return true;
@@ -1,13 +1,27 @@
 package org.jenkinsci.plugins.pipeline.utility.steps;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Util;
 import org.kohsuke.stapler.DataBoundSetter;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 public abstract class AbstractFileCompressStep extends AbstractFileStep {
     private String dir;
     private String glob;
     private String exclude;
     private boolean archive = false;
     private boolean overwrite = false;
+    private boolean store = false;
+    private int level = -1;
+    private boolean streamArchive = false;
+    private boolean keepInWorkspace = false;
+    private boolean reproducible = false;
+    private int scanThreads = 1;
+    private String files;
     /**
      * The relative path of the base directory to create the archive from.
      * Leave empty to create from the current working directory.
@@ -75,7 +89,7 @@ public abstract class AbstractFileCompressStep extends AbstractFileStep {
 
     /**
      * If the archive file should be archived as an artifact of the current build.
-     * The file will still be kept in the workspace after archiving.
+     * The file will still be kept in the workspace after archiving, unless it is streamed, see {@link #isStreamArchive()}.
      *
      * @return if it should be archived or not
      */
@@ -85,7 +99,7 @@ public abstract class AbstractFileCompressStep extends AbstractFileStep {
 
     /**
      * If the archive file should be archived as an artifact of the current build.
-     * The file will still be kept in the workspace after archiving.
+     * The file will still be kept in the workspace after archiving, unless it is streamed, see {@link #isStreamArchive()}.
      *
      * @param archive if it should be archived or not
      */
@@ -133,4 +147,182 @@ public abstract class AbstractFileCompressStep extends AbstractFileStep {
     public void setDefaultExcludes(boolean defaultExcludes) {
         this.defaultExcludes = defaultExcludes;
     }
+
+    /**
+     * Store the files in the archive without compressing them, same as a {@link #getLevel()} of <code>0</code>.
+     * Useful for content that is already compressed or for very large files,
+     * the files are then copied into the archive without going through the compressor.
+     *
+     * @return if the files should be stored uncompressed
+     */
+    public boolean isStore() {
+        return store;
+    }
+
+    /**
+     * Store the files in the archive without compressing them, same as a {@link #getLevel()} of <code>0</code>.
+     * Useful for content that is already compressed or for very large files,
+     * the files are then copied into the archive without going through the compressor.
+     *
+     * @param store if the files should be stored uncompressed
+     */
+    @DataBoundSetter
+    public void setStore(boolean store) {
+        this.store = store;
+    }
+
+    /**
+     * The compression level, <em>e.g.</em> 1-9 for zip.
+     * <code>0</code> stores the files uncompressed and a negative value uses the default level.
+     *
+     * @return the compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * The compression level, <em>e.g.</em> 1-9 for zip.
+     * <code>0</code> stores the files uncompressed and a negative value uses the default level.
+     *
+     * @param level the compression level
+     */
+    @DataBoundSetter
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**
+     * If the archive file should be written straight into the artifacts of the current build when {@link #isArchive()},
+     * instead of writing it to the workspace first and archiving it from there.
+     * Only the standard artifact manager can be streamed to, other artifact managers archive from the workspace as usual.
+     *
+     * @return if the archive should be streamed to the artifacts
+     */
+    public boolean isStreamArchive() {
+        return streamArchive;
+    }
+
+    /**
+     * If the archive file should be written straight into the artifacts of the current build when {@link #isArchive()},
+     * instead of writing it to the workspace first and archiving it from there.
+     * Only the standard artifact manager can be streamed to, other artifact managers archive from the workspace as usual.
+     *
+     * @param streamArchive if the archive should be streamed to the artifacts
+     */
+    @DataBoundSetter
+    public void setStreamArchive(boolean streamArchive) {
+        this.streamArchive = streamArchive;
+    }
+
+    /**
+     * If a streamed archive file should also be written to the workspace, see {@link #isStreamArchive()}.
+     *
+     * @return if the streamed archive should be kept in the workspace
+     */
+    public boolean isKeepInWorkspace() {
+        return keepInWorkspace;
+    }
+
+    /**
+     * If a streamed archive file should also be written to the workspace, see {@link #isStreamArchive()}.
+     *
+     * @param keepInWorkspace if the streamed archive should be kept in the workspace
+     */
+    @DataBoundSetter
+    public void setKeepInWorkspace(boolean keepInWorkspace) {
+        this.keepInWorkspace = keepInWorkspace;
+    }
+
+    /**
+     * If the archive should be byte for byte the same every time it is created from the same files.
+     * The entries are sorted by name, the modification times fixed, the owners and permissions normalized
+     * and the names encoded in UTF-8.
+     *
+     * @return if the archive should be reproducible
+     */
+    public boolean isReproducible() {
+        return reproducible;
+    }
+
+    /**
+     * If the archive should be byte for byte the same every time it is created from the same files.
+     * The entries are sorted by name, the modification times fixed, the owners and permissions normalized
+     * and the names encoded in UTF-8.
+     *
+     * @param reproducible if the archive should be reproducible
+     */
+    @DataBoundSetter
+    public void setReproducible(boolean reproducible) {
+        this.reproducible = reproducible;
+    }
+
+    /**
+     * The number of threads to scan the directory for the files to archive with.
+     * With one thread Ant's directory scanner is used. With more the directory is walked in parallel
+     * and the files are archived in the order they are found, unless {@link #isReproducible()}.
+     *
+     * @return the number of scanning threads
+     */
+    public int getScanThreads() {
+        return scanThreads;
+    }
+
+    /**
+     * The number of threads to scan the directory for the files to archive with.
+     * With one thread Ant's directory scanner is used. With more the directory is walked in parallel
+     * and the files are archived in the order they are found, unless {@link #isReproducible()}.
+     *
+     * @param scanThreads the number of scanning threads
+     */
+    @DataBoundSetter
+    public void setScanThreads(int scanThreads) {
+        this.scanThreads = Math.max(1, scanThreads);
+    }
+
+    /**
+     * The files to archive, relative to {@link #getDir()}, instead of scanning the directory with {@link #getGlob()}
+     * and {@link #getExclude()}.
+     * The paths are separated by line breaks, so they can contain commas, e.g. from <code>findFiles</code>
+     * with <code>findFiles(glob: '**&#47;*.jar').collect { it.path }.join('\n')</code>.
+     *
+     * @return the paths of the files, or null to scan the directory
+     */
+    public String getFiles() {
+        return files;
+    }
+
+    /**
+     * The files to archive, relative to {@link #getDir()}, instead of scanning the directory with {@link #getGlob()}
+     * and {@link #getExclude()}.
+     * The paths are separated by line breaks, so they can contain commas, e.g. from <code>findFiles</code>
+     * with <code>findFiles(glob: '**&#47;*.jar').collect { it.path }.join('\n')</code>.
+     *
+     * @param files the paths of the files
+     */
+    @DataBoundSetter
+    public void setFiles(String files) {
+        // a form submits the line breaks of a text area as CRLF
+        this.files = Util.fixEmptyAndTrim(files == null ? null : files.replace("\r\n", "\n"));
+    }
+
+    /**
+     * The paths in {@link #getFiles()}, each listed once.
+     *
+     * @return the relative paths of the files, or null to scan the directory
+     */
+    @CheckForNull
+    public List<String> getFileList() {
+        if (files == null) {
+            return null;
+        }
+        Set<String> paths = new LinkedHashSet<>();
+        for (String path : files.split("\\r?\\n")) {
+            path = path.trim();
+            if (!path.isEmpty()) {
+                paths.add(path);
+            }
+        }
+        return new ArrayList<>(paths);
+    }
 }
@@ -5,8 +5,10 @@ import org.kohsuke.stapler.DataBoundSetter;
 public abstract class AbstractFileDecompressStep extends AbstractFileStep {
     private String dir;
     private String glob;
+    private String exclude;
     private boolean test = false;
     private boolean quiet = false;
+    private int extractThreads = 1;
 
     /**
      * The relative path of the base directory to create the archive from.
@@ -30,7 +32,7 @@ public abstract class AbstractFileDecompressStep extends AbstractFileStep {
     }
 
     /**
-     * <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style pattern</a>
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
      * of files to extract from the archive.
      * Leave empty to include all files and directories.
      *
@@ -41,7 +43,7 @@ public abstract class AbstractFileDecompressStep extends AbstractFileStep {
     }
 
     /**
-     * <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style pattern</a>
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
      * of files to extract from the archive.
      * Leave empty to include all files and directories.
      *
@@ -52,6 +54,27 @@ public abstract class AbstractFileDecompressStep extends AbstractFileStep {
         this.glob = glob;
     }
 
+    /**
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
+     * of files in the archive that should not be extracted, even if they match {@link #getGlob()}.
+     *
+     * @return the exclude pattern
+     */
+    public String getExclude() {
+        return exclude;
+    }
+
+    /**
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
+     * of files in the archive that should not be extracted, even if they match {@link #getGlob()}.
+     *
+     * @param exclude the exclude pattern
+     */
+    @DataBoundSetter
+    public void setExclude(String exclude) {
+        this.exclude = exclude;
+    }
+
     /**
      * Test the integrity of the archive instead of extracting it.
      * When this parameter is enabled, all other parameters <em>(except for {@link #getFile()})</em> will be ignored.
@@ -96,4 +119,27 @@ public abstract class AbstractFileDecompressStep extends AbstractFileStep {
         this.quiet = quiet;
     }
 
+    /**
+     * The number of threads to extract the archive with on the agent.
+     * With more than one thread the files are written to the workspace in parallel.
+     * Defaults to <code>1</code>.
+     *
+     * @return the number of extraction threads
+     */
+    public int getExtractThreads() {
+        return extractThreads;
+    }
+
+    /**
+     * The number of threads to extract the archive with on the agent.
+     * With more than one thread the files are written to the workspace in parallel.
+     * Defaults to <code>1</code>.
+     *
+     * @param extractThreads the number of extraction threads
+     */
+    @DataBoundSetter
+    public void setExtractThreads(int extractThreads) {
+        this.extractThreads = Math.max(1, extractThreads);
+    }
+
 }
@@ -25,19 +25,29 @@
 package org.jenkinsci.plugins.pipeline.utility.steps;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.FilePath;
 import hudson.Launcher;
+import hudson.Util;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
+import jenkins.model.StandardArtifactManager;
 import jenkins.util.BuildListenerAdapter;
 import org.apache.commons.lang3.StringUtils;
 import org.jenkinsci.plugins.workflow.steps.MissingContextVariableException;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -78,21 +88,51 @@ public abstract class CompressStepExecution extends SynchronousNonBlockingStepEx
             }
         }
         FilePath destination = ws.child(step.getFile());
-        if (destination.exists() && !step.isOverwrite()) {
+        String artifactPath = step.getFile().replace('\\', '/');
+        File artifact = null;
+        if (step.isArchive() && step.isStreamArchive()) {
+            if (isUpdating()) {
+                throw new IOException("An archive can't be updated while it is streamed to the artifacts.");
+            }
+            artifact = getStreamedArtifact(artifactPath);
+            if (artifact == null) {
+                logger.println("The artifact manager of this build can't be streamed to, archiving from the workspace.");
+            }
+        }
+        boolean inWorkspace = artifact == null || step.isKeepInWorkspace();
+        if (inWorkspace && destination.exists() && !step.isOverwrite() && !isUpdating()) {
             throw new IOException(destination.getRemote() + " exists.");
         }
 
-        logger.print("Compress " + source.getRemote());
-        if (!StringUtils.isBlank(step.getGlob()) || !StringUtils.isBlank(step.getExclude())) {
+        boolean filtered = !StringUtils.isBlank(step.getGlob()) || !StringUtils.isBlank(step.getExclude());
+        List<String> listed = step.getFileList();
+        if (listed != null && filtered) {
+            throw new IOException("files can't be combined with glob or exclude.");
+        }
+
+        if (listed != null) {
+            logger.print("Compress " + listed.size() + " files from " + source.getRemote());
+        } else {
+            logger.print("Compress " + source.getRemote());
+        }
+        if (filtered) {
             logger.print(" filtered by [" + step.getGlob() + "] - [" + step.getExclude() + "]");
         }
-        logger.println(" to " + destination.getRemote());
+        logger.println(" to " + (inWorkspace ? destination.getRemote() : "the artifacts as " + artifactPath));
 
         callable.setDestination(destination);
-        Integer count = source.act(callable);
+        callable.setFiles(listed);
+        Integer count;
+        if (artifact == null) {
+            count = source.act(callable);
+        } else {
+            count = streamToArtifact(source, artifact, inWorkspace);
+        }
         logger.println("Compressed " + count + " entries.");
 
-        if (step.isArchive()) {
+        if (artifact != null) {
+            logger.println("Archived " + artifactPath + " while compressing");
+        } else if (step.isArchive()) {
             Run<?, ?> build = getContext().get(Run.class);
             if (build == null) {
                 throw new MissingContextVariableException(Run.class);
@@ -104,12 +144,68 @@ public abstract class CompressStepExecution extends SynchronousNonBlockingStepEx
             logger.println("Archiving " + destination.getRemote());
 
             Map<String, String> files = new HashMap<>();
-            String s = step.getFile().replace('\\', '/');
-            files.put(s, s);
+            files.put(artifactPath, artifactPath);
             build.pickArtifactManager().archive(ws, launcher, new BuildListenerAdapter(listener), files);
         }
 
         return null;
     }
 
+    /**
+     * The file in the build's artifacts to write the archive to directly,
+     * if the build uses the {@link StandardArtifactManager} which keeps the artifacts on the controller's file system.
+     *
+     * @param artifactPath the relative path of the artifact
+     * @return the artifact file or null if the archive can't be streamed to the artifacts
+     */
+    @CheckForNull
+    private File getStreamedArtifact(String artifactPath) throws IOException, InterruptedException {
+        Run<?, ?> build = getContext().get(Run.class);
+        if (build == null) {
+            throw new MissingContextVariableException(Run.class);
+        }
+        if (!(build.pickArtifactManager() instanceof StandardArtifactManager)) {
+            return null;
+        }
+        Path artifactsDir = build.getArtifactsDir().toPath().toAbsolutePath().normalize();
+        Path file = artifactsDir.resolve(artifactPath).normalize();
+        if (!file.startsWith(artifactsDir) || file.equals(artifactsDir)) {
+            return null;
+        }
+        return file.toFile();
+    }
+
+    /**
+     * Runs the callable with the artifact file opened on the controller as its sink,
+     * so the archive is sent over the agent's channel as it is written.
+     */
+    private Integer streamToArtifact(FilePath source, File artifact, boolean keepInWorkspace) throws IOException, InterruptedException {
+        Util.createDirectories(artifact.getParentFile().toPath());
+        boolean success = false;
+        try (OutputStream out = Files.newOutputStream(artifact.toPath())) {
+            callable.setSink(new RemoteOutputStream(out), keepInWorkspace);
+            Integer count = source.act(callable);
+            // the agent has returned, but the last chunks it sent may still be written to the artifact
+            VirtualChannel channel = source.getChannel();
+            if (channel != null) {
+                channel.syncLocalIO();
+            }
+            success = true;
+            return count;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(artifact.toPath());
+            }
+        }
+    }
+
+    /**
+     * If the step updates an existing file instead of creating a new one.
+     *
+     * @return true if an existing destination is not an error
+     */
+    protected boolean isUpdating() {
+        return false;
+    }
+
 }
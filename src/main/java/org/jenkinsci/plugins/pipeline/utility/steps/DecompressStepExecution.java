@@ -92,12 +92,15 @@ public abstract class DecompressStepExecution extends SynchronousNonBlockingStep
 
     private Object test(TaskListener listener, FilePath workspace) throws IOException, InterruptedException {
         FilePath source = workspace.child(step.getFile());
+        String error = null;
         if (!source.exists()) {
-            listener.error(source.getRemote() + " does not exist.");
-            return Boolean.FALSE;
+            error = source.getRemote() + " does not exist.";
         } else if (source.isDirectory()) {
-            listener.error(source.getRemote() + " is a directory.");
-            return Boolean.FALSE;
+            error = source.getRemote() + " is a directory.";
+        }
+        if (error != null) {
+            listener.error(error);
+            return testFailed(error);
         }
         FilePath destination = workspace;
         if (!StringUtils.isBlank(step.getDir())) {
@@ -107,4 +110,14 @@ public abstract class DecompressStepExecution extends SynchronousNonBlockingStep
         callable.setDestination(destination);
         return source.act(callable);
     }
+
+    /**
+     * The result of testing a file that isn't there or is a directory.
+     *
+     * @param error why the file couldn't be tested
+     * @return what the step returns for a file that failed the test
+     */
+    protected Object testFailed(@NonNull String error) {
+        return Boolean.FALSE;
+    }
 }
@@ -0,0 +1,298 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.jenkinsci.plugins.pipeline.utility.steps;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import org.apache.tools.ant.DirectoryScanner;
+import org.apache.tools.ant.types.FileSet;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+import org.apache.tools.ant.types.selectors.TokenizedPath;
+import org.apache.tools.ant.types.selectors.TokenizedPattern;
+import org.apache.tools.ant.util.FileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringTokenizer;
+
+/**
+ * The include and exclude patterns of a {@link hudson.Util#createFileSet(File, String, String)},
+ * tokenized once so that they can be matched against many paths without a {@link DirectoryScanner}.
+ *
+ * The patterns are parsed, normalized and matched the same way the file set does,
+ * including the trailing separator shorthand for <code>**</code> and Ant's default excludes.
+ * Instances are immutable and safe to share between threads,
+ * {@link #of(String, String, boolean)} hands out cached instances for patterns that are used over and over.
+ */
+public class GlobMatcher {
+    /**
+     * How many compiled matchers {@link #of(String, String, boolean)} keeps.
+     */
+    private static final int CACHE_SIZE = 64;
+    private static final Map<List<Object>, GlobMatcher> CACHE = new LinkedHashMap<List<Object>, GlobMatcher>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, GlobMatcher> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final String includePatterns;
+    private final String excludePatterns;
+    private final boolean defaultExcludes;
+    private final List<Glob> includes;
+    private final List<Glob> excludes;
+    /**
+     * The excludes that end with <code>**</code>, without that token, which exclude everything in a directory.
+     */
+    private final List<TokenizedPattern> excludedContents;
+    /**
+     * If one of the includes selects every path, so only the excludes need to be checked.
+     */
+    private final boolean includesAll;
+
+    /**
+     * @param includes the comma separated include patterns, everything if blank
+     * @param excludes the comma separated exclude patterns or null
+     * @param defaultExcludes if Ant's default excludes should be added to the excludes
+     */
+    public GlobMatcher(@CheckForNull String includes, @CheckForNull String excludes, boolean defaultExcludes) {
+        this.includePatterns = includes;
+        this.excludePatterns = excludes;
+        this.defaultExcludes = defaultExcludes;
+        List<String> include = split(includes);
+        if (include.isEmpty()) {
+            include = Collections.singletonList("**");
+        }
+        List<String> exclude = split(excludes);
+        if (defaultExcludes) {
+            Collections.addAll(exclude, DirectoryScanner.getDefaultExcludes());
+        }
+        this.includes = tokenize(include);
+        this.excludes = tokenize(exclude);
+        this.excludedContents = new ArrayList<>();
+        for (Glob glob : this.excludes) {
+            if (glob.pattern.endsWith(SelectorUtils.DEEP_TREE_MATCH)) {
+                excludedContents.add(glob.pattern.withoutLastToken());
+            }
+        }
+        boolean all = false;
+        for (Glob glob : this.includes) {
+            all |= glob.all;
+        }
+        this.includesAll = all;
+    }
+
+    /**
+     * Gets a compiled matcher for the patterns, reusing the one compiled earlier for the same patterns.
+     *
+     * @param includes the comma separated include patterns, everything if blank
+     * @param excludes the comma separated exclude patterns or null
+     * @param defaultExcludes if Ant's default excludes should be added to the excludes
+     * @return the matcher
+     */
+    @NonNull
+    public static GlobMatcher of(@CheckForNull String includes, @CheckForNull String excludes, boolean defaultExcludes) {
+        List<Object> key = List.of(Objects.toString(includes, ""), Objects.toString(excludes, ""), defaultExcludes);
+        synchronized (CACHE) {
+            GlobMatcher matcher = CACHE.get(key);
+            if (matcher == null) {
+                matcher = new GlobMatcher(includes, excludes, defaultExcludes);
+                CACHE.put(key, matcher);
+            }
+            return matcher;
+        }
+    }
+
+    /**
+     * If a file is included and not excluded.
+     *
+     * @param path the path relative to the base directory
+     * @return true if the file is selected
+     */
+    public boolean matches(@NonNull TokenizedPath path) {
+        String name = path.toString();
+        return (includesAll || matchesAny(includes, path, name)) && !matchesAny(excludes, path, name);
+    }
+
+    /**
+     * If a file is included and not excluded.
+     *
+     * @param path the path relative to the base directory, separated by <code>/</code> or the platform's separator
+     * @return true if the file is selected
+     */
+    public boolean matches(@NonNull String path) {
+        return matches(new TokenizedPath(path.replace('/', File.separatorChar)));
+    }
+
+    /**
+     * If a directory can contain selected files, i.e. if it is worth walking into.
+     *
+     * @param directory the path of the directory relative to the base directory
+     * @return false if no file in the directory can be selected
+     */
+    public boolean couldMatchInside(@NonNull TokenizedPath directory) {
+        for (TokenizedPattern pattern : excludedContents) {
+            if (pattern.matchPath(directory, true)) {
+                return false;
+            }
+        }
+        if (includesAll) {
+            return true;
+        }
+        for (Glob glob : includes) {
+            if (glob.pattern.matchStartOf(directory, true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A file set with the same patterns, to scan a directory with Ant's {@link DirectoryScanner}.
+     *
+     * @param dir the directory to scan
+     * @return the file set
+     */
+    @NonNull
+    public FileSet toFileSet(@NonNull File dir) {
+        FileSet fileSet = Util.createFileSet(dir, split(includePatterns).isEmpty() ? "**" : includePatterns, excludePatterns);
+        fileSet.setDefaultexcludes(defaultExcludes);
+        return fileSet;
+    }
+
+    /**
+     * The first include pattern that is an absolute path, which only Ant's {@link DirectoryScanner} resolves.
+     *
+     * @return the pattern or null if all include patterns are relative
+     */
+    @CheckForNull
+    public String getAbsoluteInclude() {
+        for (String pattern : split(includePatterns)) {
+            if (FileUtils.isAbsolutePath(pattern)) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matchesAny(List<Glob> globs, TokenizedPath path, String name) {
+        for (Glob glob : globs) {
+            if (glob.matches(path, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits the patterns the same way {@link hudson.Util#createFileSet(File, String, String)} does.
+     */
+    private static List<String> split(@CheckForNull String patterns) {
+        List<String> result = new ArrayList<>();
+        if (patterns != null) {
+            StringTokenizer tokens = new StringTokenizer(patterns, ",");
+            while (tokens.hasMoreTokens()) {
+                String token = tokens.nextToken().trim();
+                if (!token.isEmpty()) {
+                    result.add(token);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Normalizes the patterns like {@link DirectoryScanner} does before tokenizing them.
+     */
+    private static List<Glob> tokenize(List<String> patterns) {
+        List<Glob> result = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            String normalized = pattern.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+            if (normalized.endsWith(File.separator)) {
+                normalized += SelectorUtils.DEEP_TREE_MATCH;
+            }
+            result.add(new Glob(normalized));
+        }
+        return result;
+    }
+
+    /**
+     * A tokenized pattern with the shortcuts that avoid matching it token by token.
+     */
+    private static final class Glob {
+        private final TokenizedPattern pattern;
+        /**
+         * The first token if it has no wildcards, every matching path starts with it.
+         * Only the first token, the later ones could be separated by more than one separator in the path.
+         */
+        private final String prefix;
+        /**
+         * The whole pattern if it has no wildcards at all.
+         */
+        @CheckForNull
+        private final String literal;
+        /**
+         * If the pattern is <code>**</code> or <code>**&#47;*</code>, which match every path.
+         */
+        private final boolean all;
+
+        Glob(String normalized) {
+            this.pattern = new TokenizedPattern(normalized);
+            String[] tokens = SelectorUtils.tokenizePath(normalized).toArray(new String[0]);
+            StringBuilder leading = new StringBuilder();
+            int literalTokens = 0;
+            while (literalTokens < tokens.length && !SelectorUtils.hasWildcards(tokens[literalTokens])) {
+                if (literalTokens > 0) {
+                    leading.append(File.separatorChar);
+                }
+                leading.append(tokens[literalTokens++]);
+            }
+            // the first token of an absolute pattern is its root, leave those to Ant
+            boolean relative = !FileUtils.isAbsolutePath(normalized);
+            this.literal = relative && literalTokens == tokens.length && tokens.length > 0 ? leading.toString() : null;
+            this.prefix = relative && literalTokens > 0 ? tokens[0] : "";
+            this.all = tokens.length > 0 && SelectorUtils.DEEP_TREE_MATCH.equals(tokens[0])
+                    && (tokens.length == 1 || tokens.length == 2 && "*".equals(tokens[1]));
+        }
+
+        boolean matches(TokenizedPath path, String name) {
+            if (all || (literal != null && literal.equals(name))) {
+                return true;
+            }
+            if (!prefix.isEmpty() && !(name.startsWith(prefix)
+                    && (name.length() == prefix.length() || name.charAt(prefix.length()) == File.separatorChar))) {
+                return false;
+            }
+            return pattern.matchPath(path, true);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Extracts files into a local destination directory without going through {@link hudson.FilePath}.
+ *
+ * The destination is normalized once and every entry is checked with a cheap lexical prefix check.
+ * Symbolic links that could lead out of the destination are caught by resolving the real path of every directory
+ * the first time it is used, and of existing files that are links, instead of canonicalizing every entry.
+ * Created directories are remembered so that each is only created once.
+ *
+ * Instances are safe to use from several extraction threads.
+ */
+public class LocalDestination {
+    private final Path base;
+    private final boolean allowOutside;
+    private final boolean posix;
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+    private volatile Path realBase;
+
+    /**
+     * @param destination the directory to extract to
+     * @param allowOutside the SECURITY-2169 escape hatch, skips all bounds checks
+     */
+    public LocalDestination(@NonNull File destination, boolean allowOutside) {
+        this.base = destination.toPath().toAbsolutePath().normalize();
+        this.allowOutside = allowOutside;
+        this.posix = base.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * The normalized destination directory.
+     *
+     * @return the destination
+     */
+    @NonNull
+    public Path getBase() {
+        return base;
+    }
+
+    /**
+     * Resolves the name of an archive entry against the destination.
+     *
+     * @param name the name of the entry
+     * @return the path to extract the entry to
+     * @throws FileNotFoundException if the entry would end up outside of the destination
+     */
+    @NonNull
+    public Path resolve(@NonNull String name) throws FileNotFoundException {
+        Path path = base.resolve(name).normalize();
+        if (!contains(path)) {
+            throw new FileNotFoundException(path + " is out of bounds!");
+        }
+        return path;
+    }
+
+    /**
+     * Lexically checks that a path is inside the destination.
+     *
+     * @param path a normalized path
+     * @return true if the path is the destination or below it
+     */
+    public boolean contains(@NonNull Path path) {
+        return allowOutside || path.startsWith(base);
+    }
+
+    /**
+     * Creates a directory and its parents, unless that was already done.
+     *
+     * @param directory the directory
+     * @throws IOException if the directory could not be created or is a link out of the destination
+     */
+    public void createDirectories(@NonNull Path directory) throws IOException {
+        if (directories.contains(directory)) {
+            return;
+        }
+        // unlike Files.createDirectories this follows links to directories, like FilePath.mkdirs
+        Util.createDirectories(directory);
+        checkReal(directory);
+        directories.add(directory);
+    }
+
+    /**
+     * Opens a file for writing, creating its parent directories if needed.
+     *
+     * @param file the file
+     * @return the stream to write the content to
+     * @throws IOException if the file can't be created or is a link out of the destination
+     */
+    @NonNull
+    public OutputStream newOutputStream(@NonNull Path file) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            createDirectories(parent);
+        }
+        if (Files.isSymbolicLink(file)) {
+            checkReal(file);
+        }
+        return Files.newOutputStream(file);
+    }
+
+    /**
+     * Sets the permissions of a file like {@link hudson.FilePath#chmod(int)} does.
+     * Does nothing on file systems without POSIX permissions.
+     *
+     * @param file the file
+     * @param mode the unix mode
+     * @throws IOException if the permissions could not be set
+     */
+    public void chmod(@NonNull Path file, int mode) throws IOException {
+        if (!posix || mode == -1) {
+            return;
+        }
+        Files.setPosixFilePermissions(file, Util.modeToPermissions(mode));
+    }
+
+    /**
+     * Sets the modification time of a file or directory.
+     *
+     * @param file the file
+     * @param millis the modification time in milliseconds since the epoch
+     * @throws IOException if the time could not be set
+     */
+    public void setLastModifiedTime(@NonNull Path file, long millis) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(millis));
+    }
+
+    /**
+     * Creates a symbolic link, replacing a file that is already there.
+     * The target has to be relative and, resolved against the directory of the link, inside the destination.
+     * The real path of the target, or of the part of it that exists, is checked too,
+     * so a chain of existing links can't lead out of the destination.
+     * Links created later can still change where this one leads, see {@link #checkSymbolicLinks(Collection)}.
+     *
+     * @param link the link to create
+     * @param target the target of the link as stored in the archive
+     * @throws IOException if the link could not be created or would point out of the destination
+     */
+    public void createSymbolicLink(@NonNull Path link, @NonNull String target) throws IOException {
+        Path targetPath = link.getFileSystem().getPath(target);
+        if (link.equals(base) || !allowOutside && (targetPath.isAbsolute() || !contains(link.resolveSibling(targetPath).normalize()))) {
+            throw new FileNotFoundException(link + " -> " + target + " is out of bounds!");
+        }
+        createDirectories(link.getParent());
+        Files.deleteIfExists(link);
+        Files.createSymbolicLink(link, targetPath);
+        if (!isInside(link, targetPath)) {
+            Files.delete(link);
+            throw new FileNotFoundException(link + " -> " + target + " is out of bounds!");
+        }
+    }
+
+    /**
+     * Checks where the created symbolic links lead once all of them are there.
+     * A link that stayed inside the destination when it was created can lead out of it through a link created later,
+     * like <code>x -&gt; y/y/y/../../..</code> followed by <code>y -&gt; .</code>.
+     * All links that lead out of the destination are deleted.
+     *
+     * @param links the symbolic links created by {@link #createSymbolicLink(Path, String)}
+     * @throws IOException if a link leads out of the destination
+     */
+    public void checkSymbolicLinks(@NonNull Collection<Path> links) throws IOException {
+        if (allowOutside) {
+            return;
+        }
+        // decide for all links before deleting any, deleting one changes where the others lead
+        Map<Path, Path> outside = new LinkedHashMap<>();
+        for (Path link : links) {
+            if (Files.isSymbolicLink(link)) {
+                Path target = Files.readSymbolicLink(link);
+                if (!isInside(link, target)) {
+                    outside.put(link, target);
+                }
+            }
+        }
+        for (Path link : outside.keySet()) {
+            Files.deleteIfExists(link);
+        }
+        if (!outside.isEmpty()) {
+            Map.Entry<Path, Path> first = outside.entrySet().iterator().next();
+            throw new FileNotFoundException(first.getKey() + " -> " + first.getValue() + " is out of bounds!");
+        }
+    }
+
+    /**
+     * Checks the real path of the target of a link, or for a dangling link of the part of it that exists,
+     * as links in it could lead out too.
+     */
+    private boolean isInside(Path link, Path target) throws IOException {
+        Path existing = link;
+        if (!Files.exists(existing)) {
+            existing = link.resolveSibling(target).getParent();
+            while (!Files.exists(existing)) {
+                existing = existing.getParent();
+            }
+        }
+        try {
+            checkReal(existing);
+            return true;
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a hard link to a regular file in the destination, replacing a file that is already there.
+     *
+     * @param link the link to create
+     * @param target the existing file, as resolved by {@link #resolve(String)}
+     * @throws IOException if the link could not be created or the target is not a regular file in the destination
+     */
+    public void createLink(@NonNull Path link, @NonNull Path target) throws IOException {
+        if (link.equals(base) || link.equals(target) || !Files.isRegularFile(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileNotFoundException(link + " links to " + target + " which is not an extracted file");
+        }
+        checkReal(target);
+        createDirectories(link.getParent());
+        Files.deleteIfExists(link);
+        Files.createLink(link, target);
+    }
+
+    private void checkReal(Path path) throws IOException {
+        if (allowOutside) {
+            return;
+        }
+        Path real = realBase;
+        if (real == null) {
+            real = base.toRealPath();
+            realBase = real;
+        }
+        if (!path.toRealPath().startsWith(real)) {
+            throw new FileNotFoundException(path + " is out of bounds!");
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.jenkinsci.plugins.pipeline.utility.steps;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.types.selectors.TokenizedPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Finds the files selected by a {@link GlobMatcher} below a base directory.
+ *
+ * With one thread this is {@link org.apache.tools.ant.DirectoryScanner}, exactly as the steps always scanned.
+ * With more threads the subdirectories are listed in parallel on a {@link ForkJoinPool}
+ * and every file is handed to a {@link Visitor} as soon as it is found, through a bounded queue to the calling thread
+ * and in no particular order, instead of collecting all of them first.
+ *
+ * The parallel walk makes the same decisions as the Ant scanner for relative patterns.
+ * Directories that can't contain selected files are not walked into.
+ * A directory that can't be listed is treated as a file, like Ant does.
+ * Links to directories are followed unless they lead back to one of their parents.
+ * Absolute include patterns are rejected, they are only resolved by the Ant scanner.
+ */
+public class ParallelDirectoryScanner {
+    /**
+     * How many found files may wait for the visitor before the walking threads block.
+     */
+    static final int QUEUE_SIZE = 4096;
+    private static final Found END = new Found(null);
+
+    private final Path base;
+    private final GlobMatcher matcher;
+    private final int threads;
+
+    /**
+     * Receives the files found by the scanner.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * @param relativePath the path of the file relative to the base directory, separated by the platform's separator
+         * @throws IOException if the file can't be processed, which stops the scan
+         */
+        void visit(@NonNull String relativePath) throws IOException;
+    }
+
+    /**
+     * @param base the directory to scan
+     * @param matcher the files to select
+     * @param threads the number of threads to list the directories with
+     */
+    public ParallelDirectoryScanner(@NonNull File base, @NonNull GlobMatcher matcher, int threads) {
+        this.base = base.toPath();
+        this.matcher = matcher;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Walks the tree, calling the visitor on the current thread for every selected file.
+     *
+     * @param visitor the visitor
+     * @throws IOException if a directory can't be listed or the visitor fails
+     * @throws InterruptedException if interrupted while waiting for the walking threads
+     */
+    public void scan(@NonNull Visitor visitor) throws IOException, InterruptedException {
+        if (threads == 1) {
+            for (String path : matcher.toFileSet(base.toFile()).getDirectoryScanner(new Project()).getIncludedFiles()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                visitor.visit(path);
+            }
+            return;
+        }
+        String absolute = matcher.getAbsoluteInclude();
+        if (absolute != null) {
+            throw new IOException("Expecting Ant GLOB pattern, but saw '" + absolute
+                    + "'. See https://ant.apache.org/manual/Types/fileset.html for syntax");
+        }
+        Directory root = new Directory(base, TokenizedPath.EMPTY_PATH, base.toRealPath());
+
+        BlockingQueue<Found> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.execute(() -> {
+                try {
+                    new DirectoryTask(this, root, queue).invoke();
+                } catch (Throwable t) {
+                    failure.set(t);
+                } finally {
+                    try {
+                        put(queue, END);
+                    } catch (InterruptedException e) {
+                        // the visitor has given up already
+                    }
+                }
+            });
+            Found found;
+            while ((found = queue.take()) != END) {
+                visitor.visit(found.path);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Throwable t = failure.get();
+        if (t instanceof ListingException) {
+            throw ((ListingException) t).getCause();
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t != null) {
+            throw new IOException(t);
+        }
+    }
+
+    /**
+     * Collects all selected files.
+     *
+     * @return the paths of the files relative to the base directory
+     * @throws IOException if a directory can't be listed
+     * @throws InterruptedException if interrupted while waiting for the walking threads
+     */
+    @NonNull
+    public String[] getIncludedFiles() throws IOException, InterruptedException {
+        List<String> files = new ArrayList<>();
+        scan(files::add);
+        return files.toArray(new String[0]);
+    }
+
+    /**
+     * Lists one directory, handing the selected files to the visitor
+     * and the subdirectories that could contain selected files to the directory visitor.
+     */
+    private void list(Directory directory, Visitor visitor, DirectoryVisitor directories) throws IOException {
+        DirectoryStream<Path> listing;
+        try {
+            listing = Files.newDirectoryStream(directory.path);
+        } catch (IOException e) {
+            if (directory.name == TokenizedPath.EMPTY_PATH) {
+                throw e;
+            }
+            // the Ant scanner takes a directory it can't list for a file
+            if (matcher.matches(directory.name)) {
+                visitor.visit(directory.name.toString());
+            }
+            return;
+        }
+        try (DirectoryStream<Path> stream = listing) {
+            for (Path child : stream) {
+                String name = child.getFileName().toString();
+                TokenizedPath path = new TokenizedPath(directory.name, name);
+                BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                Path real = null;
+                if (attributes.isSymbolicLink()) {
+                    try {
+                        attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        // a broken link, which the Ant scanner counts as a file
+                        if (matcher.matches(path)) {
+                            visitor.visit(path.toString());
+                        }
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        real = child.toRealPath();
+                        if (directory.real.startsWith(real)) {
+                            // links back to a parent, walking into it would never end
+                            continue;
+                        }
+                    }
+                }
+                if (attributes.isDirectory()) {
+                    if (matcher.couldMatchInside(path)) {
+                        directories.visit(new Directory(child, path, real != null ? real : directory.real.resolve(name)));
+                    }
+                } else if (matcher.matches(path)) {
+                    visitor.visit(path.toString());
+                }
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<Found> queue, Found found) throws InterruptedException {
+        if (queue.offer(found)) {
+            return;
+        }
+        // let the pool make up for the blocked thread
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            private boolean done;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                if (!done) {
+                    queue.put(found);
+                    done = true;
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                if (!done) {
+                    done = queue.offer(found);
+                }
+                return done;
+            }
+        });
+    }
+
+    private interface DirectoryVisitor {
+        void visit(Directory directory) throws IOException;
+    }
+
+    private static final class Directory {
+        final Path path;
+        final TokenizedPath name;
+        /**
+         * The real path of the directory, to recognize links back to a parent.
+         */
+        final Path real;
+
+        Directory(Path path, TokenizedPath name, Path real) {
+            this.path = path;
+            this.name = name;
+            this.real = real;
+        }
+    }
+
+    /**
+     * A found file, wrapped so the end of the scan can be told apart by identity.
+     */
+    private static final class Found {
+        final String path;
+
+        Found(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Lists a directory and forks a task for each of its subdirectories.
+     */
+    private static final class DirectoryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ParallelDirectoryScanner scanner;
+        private final transient Directory directory;
+        private final transient BlockingQueue<Found> queue;
+
+        DirectoryTask(ParallelDirectoryScanner scanner, Directory directory, BlockingQueue<Found> queue) {
+            this.scanner = scanner;
+            this.directory = directory;
+            this.queue = queue;
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            try {
+                scanner.list(directory, path -> {
+                    try {
+                        put(queue, new Found(path));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while scanning " + directory.path);
+                    }
+                }, child -> subtasks.add(new DirectoryTask(scanner, child, queue)));
+            } catch (IOException e) {
+                throw new ListingException(e);
+            }
+            invokeAll(subtasks);
+        }
+    }
+
+    /**
+     * Carries an {@link IOException} out of the pool.
+     * It has no constructor taking a {@link Throwable}, so the pool rethrows the original instead of a copy.
+     */
+    private static final class ListingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ListingException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import hudson.util.IOUtils;
+import hudson.util.io.Archiver;
+import org.jenkinsci.plugins.pipeline.utility.steps.fs.ComputeHashCallable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * An {@link Archiver} that splits every file into chunks with the {@link Chunker}, adds the chunks
+ * that are not there yet to a {@link ChunkStore} and writes the list of chunks to the archive.
+ *
+ * The file is read into a buffer of twice the largest chunk size, which is only compacted
+ * when less than a full chunk is left in it.
+ */
+final class ChunkArchiveWriter extends Archiver {
+    /**
+     * 1980-01-01, the same as for reproducible zip and tar files.
+     */
+    private static final long REPRODUCIBLE_TIME = 315532800000L;
+
+    private final DataOutputStream out;
+    private final ChunkStore store;
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[2 * Chunker.MAX_SIZE];
+    private boolean reproducible;
+    private boolean closed;
+    private long storedChunks;
+    private long storedBytes;
+    private long reusedChunks;
+    private long reusedBytes;
+
+    /**
+     * @param out the stream to write the archive to
+     * @param store the store to add the chunks to
+     * @throws IOException if the header can't be written
+     */
+    ChunkArchiveWriter(OutputStream out, ChunkStore store) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.store = store;
+        this.digest = ChunkManifest.newDigest();
+        ChunkManifest.writeHeader(this.out);
+    }
+
+    /**
+     * Normalizes the modes and modification times, so the same files always give the same archive.
+     *
+     * @param reproducible true to write a reproducible archive
+     */
+    void setReproducible(boolean reproducible) {
+        this.reproducible = reproducible;
+    }
+
+    @Override
+    public void visit(File file, String relativePath) throws IOException {
+        Path path = file.toPath();
+        if (Files.isDirectory(path)) {
+            // directories are created for the files in them
+            return;
+        }
+        int mode = IOUtils.mode(file);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        if (reproducible) {
+            mode = mode != -1 && (mode & 0111) != 0 ? 0755 : 0644;
+            lastModified = REPRODUCIBLE_TIME;
+        } else if (mode != -1) {
+            // only the permission bits, the entries are always regular files
+            mode &= 0777;
+        }
+
+        ByteArrayOutputStream hashes = new ByteArrayOutputStream();
+        int[] lengths = new int[16];
+        int count = 0;
+        try (InputStream in = Files.newInputStream(path)) {
+            int start = 0;
+            int end = 0;
+            boolean eof = false;
+            while (true) {
+                if (!eof && end - start < Chunker.MAX_SIZE) {
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    end -= start;
+                    start = 0;
+                    int read;
+                    while (end < buffer.length && (read = in.read(buffer, end, buffer.length - end)) != -1) {
+                        end += read;
+                    }
+                    eof = end < buffer.length;
+                }
+                if (start == end) {
+                    break;
+                }
+                int length = Chunker.cut(buffer, start, end - start);
+                digest.update(buffer, start, length);
+                byte[] hash = digest.digest();
+                if (store.put(ComputeHashCallable.byteToHex(hash), buffer, start, length)) {
+                    storedChunks++;
+                    storedBytes += length;
+                } else {
+                    reusedChunks++;
+                    reusedBytes += length;
+                }
+                hashes.write(hash);
+                if (count == lengths.length) {
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+                lengths[count++] = length;
+                start += length;
+            }
+        }
+        new ChunkManifest.Entry(relativePath.replace('\\', '/'), mode, lastModified, hashes.toByteArray(),
+                Arrays.copyOf(lengths, count)).write(out);
+        entriesWritten++;
+    }
+
+    long getStoredChunks() {
+        return storedChunks;
+    }
+
+    long getStoredBytes() {
+        return storedBytes;
+    }
+
+    long getReusedChunks() {
+        return reusedChunks;
+    }
+
+    long getReusedBytes() {
+        return reusedBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            ChunkManifest.writeEnd(out);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import org.jenkinsci.plugins.pipeline.utility.steps.fs.ComputeHashCallable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The file format of a deduplicated archive.
+ *
+ * The archive only lists the files, every file with its mode, modification time and the SHA-256 and length
+ * of each of its chunks. The content is in the {@link ChunkStore}.
+ * The header is followed by the entries, each preceded by <code>true</code>, and a final <code>false</code>
+ * so a truncated archive is noticed.
+ */
+final class ChunkManifest {
+    private static final int MAGIC = 0x4a504344;
+    private static final int VERSION = 1;
+    static final String HASH_ALGORITHM = "SHA-256";
+    static final int HASH_LENGTH = 32;
+
+    private ChunkManifest() {
+    }
+
+    static MessageDigest newDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    static void writeEnd(DataOutputStream out) throws IOException {
+        out.writeBoolean(false);
+    }
+
+    static void readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a deduplicated archive");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported deduplicated archive version " + version);
+        }
+    }
+
+    /**
+     * A file in the archive.
+     */
+    static final class Entry {
+        private final String name;
+        private final int mode;
+        private final long lastModified;
+        private final byte[] hashes;
+        private final int[] lengths;
+
+        /**
+         * @param name the relative path with <code>/</code> separators
+         * @param mode the unix mode or -1 if not known
+         * @param lastModified the modification time in milliseconds since the epoch
+         * @param hashes the hashes of the chunks, one after another
+         * @param lengths the lengths of the chunks
+         */
+        Entry(String name, int mode, long lastModified, byte[] hashes, int[] lengths) {
+            this.name = name;
+            this.mode = mode;
+            this.lastModified = lastModified;
+            this.hashes = hashes;
+            this.lengths = lengths;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getMode() {
+            return mode;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+
+        int getChunkCount() {
+            return lengths.length;
+        }
+
+        int getChunkLength(int chunk) {
+            return lengths[chunk];
+        }
+
+        /**
+         * The hash of a chunk, as it is named in the {@link ChunkStore}.
+         *
+         * @param chunk the number of the chunk
+         * @return the hex encoded hash
+         */
+        String getChunkHash(int chunk) {
+            return ComputeHashCallable.byteToHex(Arrays.copyOfRange(hashes, chunk * HASH_LENGTH, (chunk + 1) * HASH_LENGTH));
+        }
+
+        long getSize() {
+            long size = 0;
+            for (int length : lengths) {
+                size += length;
+            }
+            return size;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeBoolean(true);
+            out.writeUTF(name);
+            out.writeInt(mode);
+            out.writeLong(lastModified);
+            out.writeInt(lengths.length);
+            for (int i = 0; i < lengths.length; i++) {
+                out.write(hashes, i * HASH_LENGTH, HASH_LENGTH);
+                out.writeInt(lengths[i]);
+            }
+        }
+
+        /**
+         * Reads the next entry.
+         *
+         * @param in the archive, after the header
+         * @return the entry or null at the end of the archive
+         * @throws IOException if the archive is truncated or can't be read
+         */
+        @CheckForNull
+        static Entry read(DataInputStream in) throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            String name = in.readUTF();
+            int mode = in.readInt();
+            long lastModified = in.readLong();
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Corrupt deduplicated archive entry " + name);
+            }
+            byte[] hashes = new byte[Math.multiplyExact(count, HASH_LENGTH)];
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                in.readFully(hashes, i * HASH_LENGTH, HASH_LENGTH);
+                lengths[i] = in.readInt();
+                if (lengths[i] < 0 || lengths[i] > Chunker.MAX_SIZE) {
+                    throw new IOException("Corrupt deduplicated archive entry " + name);
+                }
+            }
+            return new Entry(name, mode, lastModified, hashes, lengths);
+        }
+    }
+}
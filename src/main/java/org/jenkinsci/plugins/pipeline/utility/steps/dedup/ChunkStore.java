@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Node;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.fs.ComputeHashCallable;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+
+/**
+ * A directory of chunks on an agent, every chunk in a file named by the SHA-256 of its content.
+ *
+ * A chunk that is already in the store is never written again.
+ * New chunks are written to a temporary file and moved into place, so concurrent builds using the same store
+ * never see a partially written chunk.
+ */
+final class ChunkStore {
+    /**
+     * The store used when no directory is given, below the root directory of the agent.
+     */
+    static final String DEFAULT_LOCATION = "pipeline-utility-steps/chunks";
+
+    private final Path directory;
+
+    /**
+     * @param directory the directory of the store, created when the first chunk is written
+     */
+    ChunkStore(@NonNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Finds the chunk store for a step.
+     *
+     * @param workspace the workspace the step runs in
+     * @param chunkStore the directory of the store relative to the workspace, or blank for the agent's default store
+     * @return the directory of the store
+     * @throws IOException if no directory is given and the root directory of the agent is not known
+     */
+    @NonNull
+    static FilePath locate(@NonNull FilePath workspace, String chunkStore) throws IOException {
+        if (!StringUtils.isBlank(chunkStore)) {
+            return workspace.child(chunkStore);
+        }
+        Computer computer = workspace.toComputer();
+        Node node = computer == null ? null : computer.getNode();
+        FilePath root = node == null ? null : node.getRootPath();
+        if (root == null) {
+            throw new IOException("The root directory of the agent of " + workspace.getRemote()
+                    + " is not known, set chunkStore to the directory to keep the chunks in.");
+        }
+        return root.child(DEFAULT_LOCATION);
+    }
+
+    /**
+     * The directory of the store.
+     *
+     * @return the directory
+     */
+    @NonNull
+    Path getDirectory() {
+        return directory;
+    }
+
+    private Path pathOf(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Adds a chunk to the store unless it is already there.
+     *
+     * @param hash the hex encoded SHA-256 of the chunk
+     * @param data the data
+     * @param offset where the chunk starts in the data
+     * @param length the length of the chunk
+     * @return true if the chunk was written, false if it was already in the store
+     * @throws IOException if the chunk could not be written
+     */
+    boolean put(String hash, byte[] data, int offset, int length) throws IOException {
+        Path path = pathOf(hash);
+        if (Files.exists(path)) {
+            return false;
+        }
+        Path parent = path.getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, hash, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(data, offset, length);
+            }
+            // another build might have stored the same chunk in the meantime, it has the same content
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * Reads a chunk and checks that its content matches its hash.
+     *
+     * @param hash the hex encoded SHA-256 of the chunk
+     * @param length the length of the chunk
+     * @param buffer a buffer of at least the length of the chunk to read it into
+     * @param digest the SHA-256 digest to verify the chunk with
+     * @throws IOException if the chunk is missing or corrupt
+     */
+    void read(String hash, int length, byte[] buffer, MessageDigest digest) throws IOException {
+        Path path = pathOf(hash);
+        try (InputStream in = Files.newInputStream(path)) {
+            if (IOUtils.read(in, buffer, 0, length) != length || in.read() != -1) {
+                throw new IOException("Chunk " + hash + " in " + directory + " is corrupt.");
+            }
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException("Chunk " + hash + " is missing from " + directory + ".");
+        }
+        digest.update(buffer, 0, length);
+        if (!ComputeHashCallable.byteToHex(digest.digest()).equals(hash)) {
+            throw new IOException("Chunk " + hash + " in " + directory + " is corrupt.");
+        }
+    }
+}
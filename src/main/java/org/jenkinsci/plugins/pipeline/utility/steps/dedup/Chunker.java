@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+/**
+ * Splits data into chunks at content-defined boundaries with a gear rolling hash, like FastCDC.
+ *
+ * A boundary only depends on the last 64 bytes before it, so inserting or removing data in a file
+ * only changes the chunks around the change and the following chunks are found again.
+ * The boundaries are stricter before the average chunk size and looser after it,
+ * which keeps most chunks close to the average.
+ */
+final class Chunker {
+    /**
+     * No chunk is smaller than this, except the last chunk of a file.
+     */
+    static final int MIN_SIZE = 64 * 1024;
+    /**
+     * The size the boundaries aim for.
+     */
+    static final int AVERAGE_SIZE = 256 * 1024;
+    /**
+     * No chunk is larger than this.
+     */
+    static final int MAX_SIZE = 1024 * 1024;
+
+    // the top bits of the hash depend on the most bytes, 18 of them would match every 256 KiB on average,
+    // two more are required before the average size and two less after it
+    private static final long MASK_SMALL = -1L << (64 - 20);
+    private static final long MASK_LARGE = -1L << (64 - 16);
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // the table is part of the format, the same data has to be split the same way on every agent
+        long seed = 0x6a09e667f3bcc908L;
+        for (int i = 0; i < GEAR.length; i++) {
+            seed += 0x9e3779b97f4a7c15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            GEAR[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private Chunker() {
+    }
+
+    /**
+     * Finds the end of the next chunk.
+     *
+     * @param data the data
+     * @param offset where the chunk starts
+     * @param length the number of bytes available, at least {@link #MAX_SIZE} unless the end of the file is reached
+     * @return the length of the chunk
+     */
+    static int cut(byte[] data, int offset, int length) {
+        if (length <= MIN_SIZE) {
+            return length;
+        }
+        int end = Math.min(length, MAX_SIZE);
+        int normal = Math.min(end, AVERAGE_SIZE);
+        long hash = 0;
+        int i = MIN_SIZE;
+        for (; i < normal; i++) {
+            hash = (hash << 1) + GEAR[data[offset + i] & 0xff];
+            if ((hash & MASK_SMALL) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < end; i++) {
+            hash = (hash << 1) + GEAR[data[offset + i] & 0xff];
+            if ((hash & MASK_LARGE) == 0) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+}
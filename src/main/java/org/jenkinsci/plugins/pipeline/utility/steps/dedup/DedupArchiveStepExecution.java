@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
+import org.jenkinsci.plugins.pipeline.utility.steps.CompressStepExecution;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Execution of {@link DedupArchiveStep}.
+ */
+public class DedupArchiveStepExecution extends CompressStepExecution {
+    private static final long serialVersionUID = 1L;
+
+    private transient DedupArchiveStep step;
+
+    protected DedupArchiveStepExecution(@NonNull DedupArchiveStep step, @NonNull StepContext context) {
+        super(step, context);
+        this.step = step;
+    }
+
+    @Override
+    protected Void run() throws Exception {
+        TaskListener listener = getContext().get(TaskListener.class);
+        assert listener != null;
+        FilePath ws = getContext().get(FilePath.class);
+        assert ws != null;
+
+        FilePath store = ChunkStore.locate(ws, step.getChunkStore());
+        setCallable(new DedupArchiveFileCallable(listener, step.getGlob(), step.getExclude(), step.isOverwrite(),
+                step.isDefaultExcludes(), step.isReproducible(), step.getScanThreads(), store.getRemote()));
+        return super.run();
+    }
+
+    /**
+     * Chunks the files and writes the archive on the agent where the source dir is located.
+     */
+    static class DedupArchiveFileCallable extends AbstractFileCallable<Integer> {
+        private final TaskListener listener;
+        private final String glob;
+        private final String exclude;
+        private final boolean overwrite;
+        private final boolean defaultExcludes;
+        private final boolean reproducible;
+        private final int scanThreads;
+        private final String chunkStore;
+
+        DedupArchiveFileCallable(TaskListener listener, String glob, String exclude, boolean overwrite, boolean defaultExcludes,
+                                 boolean reproducible, int scanThreads, String chunkStore) {
+            this.listener = listener;
+            this.glob = StringUtils.isBlank(glob) ? "**/*" : glob;
+            this.exclude = exclude;
+            this.overwrite = overwrite;
+            this.defaultExcludes = defaultExcludes;
+            this.reproducible = reproducible;
+            this.scanThreads = scanThreads;
+            this.chunkStore = chunkStore;
+        }
+
+        @Override
+        public Integer invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
+            List<Path> targets = getLocalDestinations();
+            for (Path target : targets) {
+                if (overwrite && Files.exists(target)) {
+                    Files.delete(target); //Will throw exception if it fails to delete it
+                }
+            }
+            Path base = dir.toPath().toAbsolutePath().normalize();
+            Path storeDirectory = Paths.get(chunkStore).toAbsolutePath().normalize();
+            if (base.startsWith(storeDirectory)) {
+                throw new IOException("The chunk store " + storeDirectory + " can't contain the directory to archive.");
+            }
+            String excludes = exclude;
+            if (storeDirectory.startsWith(base)) {
+                // the chunks are written while the directory is scanned, they must not be archived themselves
+                String storeGlob = base.relativize(storeDirectory).toString().replace('\\', '/') + "/**";
+                excludes = StringUtils.isBlank(exclude) ? storeGlob : exclude + "," + storeGlob;
+            }
+
+            ChunkArchiveWriter writer = new ChunkArchiveWriter(writeDestination(), new ChunkStore(storeDirectory));
+            writer.setReproducible(reproducible);
+            try {
+                archiveFiles(dir, new GlobMatcher(glob, excludes, defaultExcludes), scanThreads, reproducible, writer, targets);
+            } finally {
+                writer.close();
+            }
+            listener.getLogger().printf("Stored %d new chunks (%d bytes) and reused %d chunks (%d bytes) in %s%n",
+                    writer.getStoredChunks(), writer.getStoredBytes(), writer.getReusedChunks(), writer.getReusedBytes(),
+                    storeDirectory);
+            return writer.countEntries();
+        }
+    }
+}
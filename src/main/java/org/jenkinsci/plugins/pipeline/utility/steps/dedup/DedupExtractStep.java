@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import com.google.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Descriptor;
+import hudson.model.TaskListener;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileDecompressStep;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.util.Set;
+
+/**
+ * Extracts a deduplicated archive created by {@link DedupArchiveStep} from the chunks in the chunk store.
+ * Can also be used to test that all chunks of an archive are in the store and intact.
+ */
+public class DedupExtractStep extends AbstractFileDecompressStep {
+    private String chunkStore;
+
+    @DataBoundConstructor
+    public DedupExtractStep(String file) throws Descriptor.FormException {
+        if (StringUtils.isBlank(file)) {
+            throw new Descriptor.FormException("Can not be empty", "file");
+        }
+        setFile(file);
+    }
+
+    /**
+     * The directory the chunks are kept in, relative to the workspace.
+     * When not set the chunks are read from below the root directory of the agent.
+     *
+     * @return the chunk store directory
+     */
+    public String getChunkStore() {
+        return chunkStore;
+    }
+
+    /**
+     * The directory the chunks are kept in, relative to the workspace.
+     * When not set the chunks are read from below the root directory of the agent.
+     *
+     * @param chunkStore the chunk store directory
+     */
+    @DataBoundSetter
+    public void setChunkStore(String chunkStore) {
+        this.chunkStore = StringUtils.trimToNull(chunkStore);
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new DedupExtractStepExecution(this, context);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, FilePath.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "dedupExtract";
+        }
+
+        @Override
+        @NonNull
+        public String getDisplayName() {
+            return "Extract a deduplicated archive";
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
+import org.jenkinsci.plugins.pipeline.utility.steps.DecompressStepExecution;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
+import org.jenkinsci.plugins.pipeline.utility.steps.LocalDestination;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The execution of a {@link DedupExtractStep}.
+ */
+public class DedupExtractStepExecution extends DecompressStepExecution {
+    private static final long serialVersionUID = 1L;
+
+    private transient DedupExtractStep step;
+
+    protected DedupExtractStepExecution(@NonNull DedupExtractStep step, @NonNull StepContext context) {
+        super(step, context);
+        this.step = step;
+    }
+
+    @Override
+    protected Object run() throws IOException, InterruptedException {
+        TaskListener listener = getContext().get(TaskListener.class);
+        assert listener != null;
+        FilePath ws = getContext().get(FilePath.class);
+        assert ws != null;
+
+        String store = ChunkStore.locate(ws, step.getChunkStore()).getRemote();
+        if (step.isTest()) {
+            setCallable(new TestDedupFileCallable(listener, store));
+        } else {
+            setCallable(new DedupExtractFileCallable(listener, step.getGlob(), step.getExclude(), step.isQuiet(),
+                    step.getExtractThreads(), store));
+        }
+        return super.run();
+    }
+
+    /**
+     * Restores the files from the chunk store on the agent where the archive is located.
+     * With more than one thread the files are written on a pool of threads while the archive is read.
+     */
+    static class DedupExtractFileCallable extends AbstractFileCallable<Void> {
+        private final TaskListener listener;
+        private final String glob;
+        private final String exclude;
+        private final boolean quiet;
+        private final int extractThreads;
+        private final String chunkStore;
+
+        DedupExtractFileCallable(TaskListener listener, String glob, String exclude, boolean quiet, int extractThreads,
+                                 String chunkStore) {
+            this.listener = listener;
+            this.glob = glob;
+            this.exclude = exclude;
+            this.quiet = quiet;
+            this.extractThreads = extractThreads;
+            this.chunkStore = chunkStore;
+        }
+
+        @Override
+        public Void invoke(File archive, VirtualChannel channel) throws IOException, InterruptedException {
+            PrintStream logger = listener.getLogger();
+            GlobMatcher matcher = StringUtils.isBlank(glob) && StringUtils.isBlank(exclude)
+                    ? null : GlobMatcher.of(glob, exclude, false);
+            ChunkStore store = new ChunkStore(Paths.get(chunkStore));
+            LocalDestination destination = getLocalDestination();
+            destination.createDirectories(destination.getBase());
+            ExecutorService executor = extractThreads > 1
+                    ? Executors.newFixedThreadPool(extractThreads, new NamingThreadFactory(new DaemonThreadFactory(), "dedupExtract"))
+                    : null;
+            Deque<Future<Void>> pending = new ArrayDeque<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(archive)))) {
+                logger.println("Extracting from " + archive.getAbsolutePath());
+                ChunkManifest.readHeader(in);
+                int fileCount = 0;
+                ChunkManifest.Entry entry;
+                while ((entry = ChunkManifest.Entry.read(in)) != null) {
+                    if (matcher != null && !matcher.matches(entry.getName())) {
+                        continue;
+                    }
+                    Path f = destination.resolve(entry.getName());
+                    if (!quiet) {
+                        logger.printf("Extracting: %s -> %s%n", entry.getName(), f);
+                    }
+                    destination.createDirectories(f.getParent());
+                    if (executor == null) {
+                        restore(store, entry, f, destination);
+                    } else {
+                        ChunkManifest.Entry toRestore = entry;
+                        pending.add(executor.submit(() -> {
+                            restore(store, toRestore, f, destination);
+                            return null;
+                        }));
+                    }
+                    fileCount++;
+                }
+                while (!pending.isEmpty()) {
+                    await(pending.remove());
+                }
+                logger.printf("Extracted: %d files%n", fileCount);
+            } catch (EOFException e) {
+                throw new IOException(archive.getAbsolutePath() + " is truncated.", e);
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+                logger.flush();
+            }
+            return null;
+        }
+
+        private static void restore(ChunkStore store, ChunkManifest.Entry entry, Path f, LocalDestination destination)
+                throws IOException {
+            byte[] buffer = new byte[maxChunkLength(entry)];
+            MessageDigest digest = ChunkManifest.newDigest();
+            try (OutputStream out = destination.newOutputStream(f)) {
+                for (int chunk = 0; chunk < entry.getChunkCount(); chunk++) {
+                    store.read(entry.getChunkHash(chunk), entry.getChunkLength(chunk), buffer, digest);
+                    out.write(buffer, 0, entry.getChunkLength(chunk));
+                }
+            }
+            if (entry.getMode() != -1) {
+                destination.chmod(f, entry.getMode());
+            }
+            destination.setLastModifiedTime(f, entry.getLastModified());
+        }
+
+        private static int maxChunkLength(ChunkManifest.Entry entry) {
+            int max = 0;
+            for (int chunk = 0; chunk < entry.getChunkCount(); chunk++) {
+                max = Math.max(max, entry.getChunkLength(chunk));
+            }
+            return max;
+        }
+
+        private static void await(Future<Void> future) throws IOException, InterruptedException {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Checks that every chunk of an archive is in the chunk store and matches its hash,
+     * on the agent where the archive is located.
+     */
+    static class TestDedupFileCallable extends AbstractFileCallable<Boolean> {
+        private final TaskListener listener;
+        private final String chunkStore;
+
+        TestDedupFileCallable(TaskListener listener, String chunkStore) {
+            this.listener = listener;
+            this.chunkStore = chunkStore;
+        }
+
+        @Override
+        public Boolean invoke(File archive, VirtualChannel channel) throws IOException, InterruptedException {
+            PrintStream logger = listener.getLogger();
+            ChunkStore store = new ChunkStore(Paths.get(chunkStore));
+            byte[] buffer = new byte[Chunker.MAX_SIZE];
+            MessageDigest digest = ChunkManifest.newDigest();
+            Set<String> checked = new HashSet<>();
+            int fileCount = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(archive)))) {
+                ChunkManifest.readHeader(in);
+                ChunkManifest.Entry entry;
+                while ((entry = ChunkManifest.Entry.read(in)) != null) {
+                    for (int chunk = 0; chunk < entry.getChunkCount(); chunk++) {
+                        String hash = entry.getChunkHash(chunk);
+                        if (checked.add(hash)) {
+                            store.read(hash, entry.getChunkLength(chunk), buffer, digest);
+                        }
+                    }
+                    fileCount++;
+                }
+            } catch (EOFException e) {
+                listener.error(archive.getAbsolutePath() + " is truncated.");
+                return false;
+            } catch (IOException e) {
+                listener.error("Error validating " + archive.getAbsolutePath() + ": " + e.getMessage());
+                return false;
+            } finally {
+                logger.flush();
+            }
+            logger.printf("Checked %d chunks of %d files in %s%n", checked.size(), fileCount, store.getDirectory());
+            return true;
+        }
+    }
+}
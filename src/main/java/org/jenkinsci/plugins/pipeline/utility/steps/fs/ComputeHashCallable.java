@@ -2,31 +2,59 @@ package org.jenkinsci.plugins.pipeline.utility.steps.fs;
 
 import hudson.remoting.VirtualChannel;
 import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.IOUtils;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Formatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Computes the hash of a file on the agent.
  */
 public class ComputeHashCallable extends MasterToSlaveFileCallable<String> {
+    private static final int PARALLEL_BUFFER_SIZE = FileHasher.BUFFER_SIZE;
+
+    private static final HexFormat HEX = HexFormat.of();
+
     private final String hashAlgorithm;
+    private String cache;
 
     public ComputeHashCallable(String hashAlgorithm) {
         this.hashAlgorithm = hashAlgorithm;
     }
 
+    /**
+     * @param cache the {@link HashCache} file to look the hash up in and remember it in, or null to always read the file
+     */
+    public void setCache(String cache) {
+        this.cache = cache;
+    }
+
     @Override
-    public String invoke(File file, VirtualChannel virtualChannel) throws IOException {
+    public String invoke(File file, VirtualChannel virtualChannel) throws IOException, InterruptedException {
         if (file.exists() && file.isFile()) {
             try {
-                return hashOfFile(file);
+                if (cache == null) {
+                    return hashOfFile(file);
+                }
+                HashCache hashCache = HashCache.get(cache);
+                try {
+                    return hashesOfFile(file, new String[] {hashAlgorithm}, hashCache, null)[0];
+                } finally {
+                    // a step hashes a single file, write the hashes of many of them at once
+                    hashCache.saveSoon();
+                }
             } catch (NoSuchAlgorithmException e) {
                 throw new IOException(e.getMessage(), e);
             }
@@ -35,24 +63,150 @@ public class ComputeHashCallable extends MasterToSlaveFileCallable<String> {
     }
 
     public String hashOfFile(final File file) throws NoSuchAlgorithmException, IOException {
-        final MessageDigest messageDigest = MessageDigest.getInstance(hashAlgorithm);
+        return hashesOfFile(file, new String[] {hashAlgorithm})[0];
+    }
+
+    /**
+     * Computes several hashes of a file while reading it only once, every buffer is fed to all digests.
+     *
+     * @param file the file
+     * @param algorithms the names of the {@link MessageDigest} algorithms
+     * @return the hashes as lower case hex, in the order of the algorithms
+     * @throws NoSuchAlgorithmException if an algorithm is unknown
+     * @throws IOException if the file can't be read
+     */
+    public static String[] hashesOfFile(File file, String[] algorithms) throws NoSuchAlgorithmException, IOException {
+        MessageDigest[] digests = newDigests(algorithms);
+        FileHasher.update(file.toPath(), digests);
+        return toHex(digests);
+    }
 
-        try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
-            final byte[] buffer = new byte[1024];
-            for (int read; (read = is.read(buffer)) != -1; ) {
-                messageDigest.update(buffer, 0, read);
+    /**
+     * Computes several hashes of a file while reading it only once, updating each digest on its own thread.
+     * While the digests work on one buffer the next one is read, so reading and hashing overlap
+     * and the time taken is that of the slowest digest rather than the sum of all of them.
+     *
+     * @param file the file
+     * @param algorithms the names of the {@link MessageDigest} algorithms
+     * @param executor the threads to update the digests on
+     * @return the hashes as lower case hex, in the order of the algorithms
+     * @throws NoSuchAlgorithmException if an algorithm is unknown
+     * @throws IOException if the file can't be read
+     * @throws InterruptedException if interrupted while waiting for the digests
+     */
+    public static String[] hashesOfFile(File file, String[] algorithms, ExecutorService executor)
+            throws NoSuchAlgorithmException, IOException, InterruptedException {
+        if (algorithms.length < 2) {
+            return hashesOfFile(file, algorithms);
+        }
+        MessageDigest[] digests = newDigests(algorithms);
+        byte[][] buffers = {new byte[PARALLEL_BUFFER_SIZE], new byte[PARALLEL_BUFFER_SIZE]};
+        Future<?>[] pending = new Future<?>[digests.length];
+        try (InputStream is = new FileInputStream(file)) {
+            int current = 0;
+            for (int read; (read = IOUtils.read(is, buffers[current])) > 0; current ^= 1) {
+                // the other buffer is free once the digests are done with it
+                await(pending);
+                byte[] buffer = buffers[current];
+                int length = read;
+                for (int i = 0; i < digests.length; i++) {
+                    MessageDigest digest = digests[i];
+                    pending[i] = executor.submit(() -> digest.update(buffer, 0, length));
+                }
+            }
+            await(pending);
+        } finally {
+            for (Future<?> future : pending) {
+                if (future != null) {
+                    future.cancel(true);
+                }
             }
         }
+        return toHex(digests);
+    }
 
-        return byteToHex(messageDigest.digest());
+    /**
+     * Computes several hashes of a file, using the hashes remembered in a cache for the file as it is now.
+     * Only the missing hashes are computed, by reading the file once, and remembered if the file didn't change meanwhile.
+     *
+     * @param file the file
+     * @param algorithms the names of the {@link MessageDigest} algorithms
+     * @param cache the cache, or null to always read the file
+     * @param executor the threads to update the digests on, or null to update them on this thread
+     * @return the hashes as lower case hex, in the order of the algorithms
+     * @throws NoSuchAlgorithmException if an algorithm is unknown
+     * @throws IOException if the file can't be read
+     * @throws InterruptedException if interrupted while waiting for the digests
+     */
+    static String[] hashesOfFile(File file, String[] algorithms, HashCache cache, ExecutorService executor)
+            throws NoSuchAlgorithmException, IOException, InterruptedException {
+        if (cache == null) {
+            return executor == null ? hashesOfFile(file, algorithms) : hashesOfFile(file, algorithms, executor);
+        }
+        Path path = file.toPath().toRealPath();
+        BasicFileAttributes before = HashCache.attributes(path);
+        String[] hashes = new String[algorithms.length];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < algorithms.length; i++) {
+            hashes[i] = cache.get(path, before, algorithms[i]);
+            if (hashes[i] == null) {
+                missing.add(algorithms[i]);
+            }
+        }
+        if (missing.isEmpty()) {
+            return hashes;
+        }
+        String[] computed = executor == null
+                ? hashesOfFile(path.toFile(), missing.toArray(new String[0]))
+                : hashesOfFile(path.toFile(), missing.toArray(new String[0]), executor);
+        boolean unchanged = HashCache.unchanged(before, HashCache.attributes(path));
+        for (int i = 0, m = 0; i < algorithms.length; i++) {
+            if (hashes[i] == null) {
+                hashes[i] = computed[m++];
+                if (unchanged) {
+                    cache.put(path, before, algorithms[i], hashes[i]);
+                }
+            }
+        }
+        return hashes;
     }
 
-    private String byteToHex(byte[] bytes) {
-        try (Formatter formatter = new Formatter()) {
-            for (final byte b : bytes) {
-                formatter.format("%02x", b);
+    private static void await(Future<?>[] pending) throws IOException, InterruptedException {
+        for (Future<?> future : pending) {
+            if (future == null) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
             }
-            return formatter.toString();
         }
     }
+
+    private static MessageDigest[] newDigests(String[] algorithms) throws NoSuchAlgorithmException {
+        MessageDigest[] digests = new MessageDigest[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            digests[i] = MessageDigest.getInstance(algorithms[i]);
+        }
+        return digests;
+    }
+
+    private static String[] toHex(MessageDigest[] digests) {
+        String[] hashes = new String[digests.length];
+        for (int i = 0; i < digests.length; i++) {
+            hashes[i] = byteToHex(digests[i].digest());
+        }
+        return hashes;
+    }
+
+    /**
+     * Encodes a digest as lower case hex, with the table lookup of {@link HexFormat}.
+     *
+     * @param bytes the digest
+     * @return the hex string
+     */
+    public static String byteToHex(byte[] bytes) {
+        return HEX.formatHex(bytes);
+    }
 }
@@ -10,6 +10,7 @@ import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 import org.jenkinsci.plugins.workflow.steps.StepExecution;
 import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import java.util.Collections;
@@ -22,6 +23,7 @@ import java.util.Set;
 public abstract class FileHashStep extends Step {
     private final String file;
     private final String hashAlgorithm;
+    private boolean cache = true;
 
     public FileHashStep(String file, @NonNull String hashAlgorithm) throws Descriptor.FormException {
         if (StringUtils.isBlank(file)) {
@@ -39,6 +41,26 @@ public abstract class FileHashStep extends Step {
         return hashAlgorithm;
     }
 
+    /**
+     * If the hash may be taken from the hash cache of the agent when the file didn't change since it was last hashed.
+     *
+     * @return true to use the cache
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * If the hash may be taken from the hash cache of the agent when the file didn't change since it was last hashed.
+     * Set to false to always read the file.
+     *
+     * @param cache true to use the cache
+     */
+    @DataBoundSetter
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
     @Override
     public StepExecution start(StepContext context) throws Exception {
         return new ExecutionImpl(this, context);
@@ -91,7 +113,11 @@ public abstract class FileHashStep extends Step {
         protected String run() throws Exception {
             FilePath ws = getContext().get(FilePath.class);
             FilePath filePath = ws.child(step.getFile());
-            return filePath.act(new ComputeHashCallable(step.getHashAlgorithm()));
+            ComputeHashCallable callable = new ComputeHashCallable(step.getHashAlgorithm());
+            if (step.isCache()) {
+                callable.setCache(HashCache.locate(ws));
+            }
+            return filePath.act(callable);
         }
     }
 
@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs;
+
+import hudson.Functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Feeds the content of a file to message digests with as little copying as possible.
+ *
+ * Small and medium files are read through a {@link FileChannel} into a large direct buffer,
+ * so the content goes from the kernel straight into the buffer the digests read from.
+ * The buffers are taken from a small pool and given back when the file is hashed,
+ * so the threads of a pool don't each keep one forever.
+ * Large files are memory mapped in windows of up to a GiB and handed to the digests without any read calls,
+ * except on Windows where a mapped file can't be deleted until the mapping is garbage collected.
+ */
+final class FileHasher {
+    static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Files of at least this size are memory mapped.
+     */
+    static final long MAP_THRESHOLD = 16L * 1024 * 1024;
+
+    private static final long MAP_WINDOW = 1L << 30;
+
+    private static final boolean MAP = !Functions.isWindows();
+
+    /**
+     * How many buffers are kept for reuse, more are allocated when needed and left to the garbage collector.
+     */
+    static final int POOL_SIZE = 8;
+
+    private static final BlockingQueue<ByteBuffer> BUFFERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private FileHasher() {
+    }
+
+    /**
+     * Updates the digests with the content of a file.
+     *
+     * @param file the file
+     * @param digests the digests to update
+     * @throws IOException if the file can't be read
+     */
+    static void update(Path file, MessageDigest... digests) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (MAP && size >= MAP_THRESHOLD) {
+                map(file, channel, size, digests);
+            } else {
+                read(channel, digests);
+            }
+        }
+    }
+
+    private static void read(FileChannel channel, MessageDigest[] digests) throws IOException {
+        ByteBuffer buffer = BUFFERS.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        try {
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                for (MessageDigest digest : digests) {
+                    buffer.rewind();
+                    digest.update(buffer);
+                }
+                buffer.clear();
+            }
+        } finally {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    private static void map(Path file, FileChannel channel, long size, MessageDigest[] digests) throws IOException {
+        for (long position = 0; position < size; position += MAP_WINDOW) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(MAP_WINDOW, size - position));
+            try {
+                for (MessageDigest digest : digests) {
+                    window.rewind();
+                    digest.update(window);
+                }
+            } catch (InternalError e) {
+                // the JVM reports access to a mapped file that was truncated meanwhile this way
+                throw new IOException("Failed to read " + file + " while hashing it", e);
+            }
+        }
+    }
+}
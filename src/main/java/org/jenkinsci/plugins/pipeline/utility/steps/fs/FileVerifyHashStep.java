@@ -10,6 +10,7 @@ import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 import org.jenkinsci.plugins.workflow.steps.StepExecution;
 import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -22,6 +23,7 @@ public abstract class FileVerifyHashStep extends Step {
     private final String file;
     private final String hash;
     private final String hashAlgorithm;
+    private boolean cache = true;
 
     public FileVerifyHashStep(String file, String hash, @NonNull String hashAlgorithm) throws Descriptor.FormException {
         if (StringUtils.isBlank(file)) {
@@ -48,6 +50,26 @@ public abstract class FileVerifyHashStep extends Step {
         return hashAlgorithm;
     }
 
+    /**
+     * If the hash may be taken from the hash cache of the agent when the file didn't change since it was last hashed.
+     *
+     * @return true to use the cache
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * If the hash may be taken from the hash cache of the agent when the file didn't change since it was last hashed.
+     * Set to false to always read the file.
+     *
+     * @param cache true to use the cache
+     */
+    @DataBoundSetter
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
     @Override
     public StepExecution start(StepContext context) throws Exception {
         return new ExecutionImpl(this, context);
@@ -108,7 +130,11 @@ public abstract class FileVerifyHashStep extends Step {
         protected Void run() throws Exception {
             FilePath ws = getContext().get(FilePath.class);
             FilePath filePath = ws.child(step.getFile());
-            final String calculatedHash = filePath.act(new ComputeHashCallable(step.getHashAlgorithm()));
+            ComputeHashCallable callable = new ComputeHashCallable(step.getHashAlgorithm());
+            if (step.isCache()) {
+                callable.setCache(HashCache.locate(ws));
+            }
+            final String calculatedHash = filePath.act(callable);
 
             if (calculatedHash == null) {
                 throw new FileNotFoundException("File not found: " + this.step.getFile());
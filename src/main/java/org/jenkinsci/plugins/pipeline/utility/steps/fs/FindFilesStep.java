@@ -45,6 +45,7 @@ import java.util.Set;
 public class FindFilesStep extends Step {
     private String glob;
     private String excludes;
+    private int scanThreads = 1;
 
     @DataBoundConstructor
     public FindFilesStep() {
@@ -93,6 +94,27 @@ public class FindFilesStep extends Step {
         this.excludes = excludes;
     }
 
+    /**
+     * The number of threads to search the directory for the files matching {@link #getGlob()} with.
+     * With one thread the files are listed by {@link FilePath#list(String, String)}.
+     *
+     * @return the number of scanning threads
+     */
+    public int getScanThreads() {
+        return scanThreads;
+    }
+
+    /**
+     * The number of threads to search the directory for the files matching {@link #getGlob()} with.
+     * With one thread the files are listed by {@link FilePath#list(String, String)}.
+     *
+     * @param scanThreads the number of scanning threads
+     */
+    @DataBoundSetter
+    public void setScanThreads(int scanThreads) {
+        this.scanThreads = Math.max(1, scanThreads);
+    }
+
     @Extension
     public static class DescriptorImpl extends StepDescriptor {
 
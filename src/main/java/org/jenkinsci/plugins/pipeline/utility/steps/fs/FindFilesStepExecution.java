@@ -26,12 +26,20 @@ package org.jenkinsci.plugins.pipeline.utility.steps.fs;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
 import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
+import org.jenkinsci.plugins.pipeline.utility.steps.ParallelDirectoryScanner;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 
 import jakarta.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -57,6 +65,8 @@ public class FindFilesStepExecution extends SynchronousNonBlockingStepExecution<
         List<FilePath> list;
         if (StringUtils.isBlank(step.getGlob())) {
             list = ws.list();
+        } else if (step.getScanThreads() > 1) {
+            return ws.act(new FindFilesCallable(step.getGlob(), step.getExcludes(), step.getScanThreads()));
         } else {
             list = Arrays.asList(ws.list(step.getGlob(), step.getExcludes()));
         }
@@ -66,4 +76,34 @@ public class FindFilesStepExecution extends SynchronousNonBlockingStepExecution<
         }
         return res;
     }
+
+    /**
+     * Matches the files on the agent with several threads and collects their information there,
+     * instead of asking the agent about every single file that was found.
+     */
+    static class FindFilesCallable extends MasterToSlaveFileCallable<FileWrapper[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final String glob;
+        private final String excludes;
+        private final int threads;
+
+        FindFilesCallable(String glob, String excludes, int threads) {
+            this.glob = glob;
+            this.excludes = excludes;
+            this.threads = threads;
+        }
+
+        @Override
+        public FileWrapper[] invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
+            List<FileWrapper> files = new ArrayList<>();
+            new ParallelDirectoryScanner(dir, GlobMatcher.of(glob, excludes, true), threads).scan(path -> {
+                File file = new File(dir, path);
+                files.add(new FileWrapper(file.getName(), path, file.isDirectory(), file.length(), file.lastModified()));
+            });
+            // the threads find the files in no particular order, FilePath.list returns them sorted
+            files.sort(Comparator.comparing(FileWrapper::getPath));
+            return files.toArray(new FileWrapper[0]);
+        }
+    }
 }
@@ -0,0 +1,410 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the hashes of files on an agent, so unchanged files don't have to be read again in every build.
+ *
+ * A hash is looked up by the algorithm and the real path of the file, and only used if the size, the modification time
+ * and the file key (the inode where there is one) of the file are still the same as when it was hashed.
+ * Files modified in the last couple of seconds are not remembered, as they could still change within the resolution
+ * of the modification time.
+ * The hashes are kept in a single file below the root directory of the agent,
+ * loaded the first time a step uses it and shared by all steps on the agent.
+ * The least recently used hashes are dropped when the file grows beyond {@link #MAX_SIZE}
+ * and hashes that weren't used for {@link #MAX_AGE_DAYS} days are dropped when it is saved.
+ * Steps that hash a single file don't rewrite the whole file every time, see {@link #saveSoon()}.
+ */
+public final class HashCache {
+    private static final Logger LOGGER = Logger.getLogger(HashCache.class.getName());
+
+    static final String DEFAULT_LOCATION = "pipeline-utility-steps/hash-cache";
+
+    private static final int MAGIC = 0x48434348;
+    private static final int VERSION = 1;
+
+    /**
+     * Don't remember hashes of files modified this recently.
+     */
+    private static final long RACY_MILLIS = 2000;
+
+    private static final long USE_RESOLUTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Turns the cache off for all steps, e.g. if a file system doesn't have reliable modification times.
+     */
+    @SuppressFBWarnings(value={"MS_SHOULD_BE_FINAL"}, justification="Non final so that an admin can adjust the value through the groovy script console without restarting the instance.")
+    public static /*almost final*/ boolean DISABLED = SystemProperties.getBoolean(HashCache.class.getName() + ".DISABLED", false);
+
+    /**
+     * The approximate maximum size of the cache file in bytes.
+     */
+    static final long MAX_SIZE = SystemProperties.getLong(HashCache.class.getName() + ".MAX_SIZE", 8L * 1024 * 1024);
+
+    /**
+     * The number of days a hash is kept without being used.
+     */
+    static final long MAX_AGE_DAYS = SystemProperties.getLong(HashCache.class.getName() + ".MAX_AGE_DAYS", 30L);
+
+    /**
+     * The number of changed hashes after which {@link #saveSoon()} writes the file right away.
+     */
+    static final int SAVE_BATCH = 256;
+
+    /**
+     * How long {@link #saveSoon()} waits for more changes before writing the file.
+     */
+    static final long SAVE_DELAY_SECONDS = 30;
+
+    private static final Map<Path, HashCache> CACHES = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService SAVER = Executors.newSingleThreadScheduledExecutor(
+            new NamingThreadFactory(new DaemonThreadFactory(), "HashCache"));
+
+    private final Path location;
+    private final long maxSize;
+    private final long maxAge;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private boolean loaded;
+    private boolean dirty;
+    private int changes;
+    private boolean saveScheduled;
+
+    HashCache(@NonNull Path location, long maxSize, long maxAgeMillis) {
+        this.location = location;
+        this.maxSize = maxSize;
+        this.maxAge = maxAgeMillis;
+    }
+
+    /**
+     * Finds the cache file of the agent a workspace is on.
+     *
+     * @param workspace the workspace the step runs in
+     * @return the cache file, or null if the cache is disabled or the root directory of the agent is not known
+     */
+    @CheckForNull
+    static String locate(@NonNull FilePath workspace) {
+        if (DISABLED) {
+            return null;
+        }
+        Computer computer = workspace.toComputer();
+        Node node = computer == null ? null : computer.getNode();
+        FilePath root = node == null ? null : node.getRootPath();
+        return root == null ? null : root.child(DEFAULT_LOCATION).getRemote();
+    }
+
+    /**
+     * The cache stored in a file, shared by everyone in this JVM using the same file.
+     *
+     * @param location the cache file
+     * @return the cache
+     */
+    @NonNull
+    static HashCache get(@NonNull String location) {
+        Path path = Paths.get(location).toAbsolutePath().normalize();
+        return CACHES.computeIfAbsent(path,
+                p -> new HashCache(p, MAX_SIZE, TimeUnit.DAYS.toMillis(MAX_AGE_DAYS)));
+    }
+
+    /**
+     * Looks up the hash of a file.
+     *
+     * @param file the file
+     * @param attributes the current attributes of the file
+     * @param algorithm the algorithm
+     * @return the hash, or null if it isn't known for the file as it is now
+     */
+    @CheckForNull
+    synchronized String get(@NonNull Path file, @NonNull BasicFileAttributes attributes, @NonNull String algorithm) {
+        load();
+        Entry entry = entries.get(key(file, algorithm));
+        if (entry == null || !entry.matches(attributes)) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now - entry.lastUsed > USE_RESOLUTION_MILLIS) {
+            // only rewrite the file for a use if it makes a difference for the eviction by age
+            dirty = true;
+        }
+        entry.lastUsed = now;
+        return entry.hash;
+    }
+
+    /**
+     * Remembers the hash of a file, unless it was modified too recently to be sure it is complete.
+     *
+     * @param file the file
+     * @param attributes the attributes of the file before it was hashed
+     * @param algorithm the algorithm
+     * @param hash the hash
+     */
+    synchronized void put(@NonNull Path file, @NonNull BasicFileAttributes attributes, @NonNull String algorithm,
+                          @NonNull String hash) {
+        long now = System.currentTimeMillis();
+        if (attributes.lastModifiedTime().toMillis() > now - RACY_MILLIS) {
+            return;
+        }
+        load();
+        Entry entry = new Entry(algorithm, file.toString(), attributes.size(),
+                attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS), fileKey(attributes), hash, now);
+        Entry previous = entries.put(key(file, algorithm), entry);
+        if (previous != null) {
+            size -= previous.size();
+        }
+        size += entry.size();
+        dirty = true;
+        changes++;
+        evict();
+    }
+
+    /**
+     * Reads the attributes of a file for {@link #get(Path, BasicFileAttributes, String)}
+     * and {@link #put(Path, BasicFileAttributes, String, String)}.
+     *
+     * @param file the real path of the file
+     * @return the attributes
+     * @throws IOException if the attributes can't be read
+     */
+    @NonNull
+    static BasicFileAttributes attributes(@NonNull Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /**
+     * If a file is the same after it was hashed as it was before.
+     *
+     * @param before the attributes before hashing
+     * @param after the attributes after hashing
+     * @return true if the size, modification time and file key are the same
+     */
+    static boolean unchanged(@NonNull BasicFileAttributes before, @NonNull BasicFileAttributes after) {
+        return before.size() == after.size()
+                && before.lastModifiedTime().equals(after.lastModifiedTime())
+                && Objects.equals(before.fileKey(), after.fileKey());
+    }
+
+    /**
+     * Writes the cache file if anything changed since it was loaded.
+     * Failing to write it only costs hashing the files again, so that is logged rather than thrown.
+     */
+    synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        long oldest = System.currentTimeMillis() - maxAge;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.lastUsed < oldest) {
+                size -= entry.size();
+                it.remove();
+            }
+        }
+        try {
+            Files.createDirectories(location.getParent());
+            Path temp = Files.createTempFile(location.getParent(), location.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+                    for (Entry entry : entries.values()) {
+                        entry.write(out);
+                    }
+                }
+                try {
+                    Files.move(temp, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, location, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            dirty = false;
+            changes = 0;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save the hash cache " + location, e);
+        }
+    }
+
+    /**
+     * Writes the cache file once {@link #SAVE_BATCH} hashes changed, or else {@link #SAVE_DELAY_SECONDS} later,
+     * so that hashing one file after the other doesn't rewrite the whole file for every one of them.
+     */
+    synchronized void saveSoon() {
+        if (!dirty) {
+            return;
+        }
+        if (changes >= SAVE_BATCH) {
+            save();
+        } else if (!saveScheduled) {
+            saveScheduled = true;
+            SAVER.schedule(() -> {
+                synchronized (this) {
+                    saveScheduled = false;
+                    save();
+                }
+            }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(location)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.log(Level.FINE, "Ignoring the hash cache {0} of an unknown version", location);
+                return;
+            }
+            // the entries are written least recently used first, reading them in that order keeps the order
+            for (int count = in.readInt(); count > 0; count--) {
+                Entry entry = Entry.read(in);
+                entries.put(key(entry.path, entry.algorithm), entry);
+                size += entry.size();
+            }
+        } catch (NoSuchFileException e) {
+            // nothing cached yet
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Ignoring the unreadable hash cache " + location, e);
+            entries.clear();
+            size = 0;
+        }
+        evict();
+    }
+
+    private void evict() {
+        for (Iterator<Entry> it = entries.values().iterator(); size > maxSize && it.hasNext(); ) {
+            size -= it.next().size();
+            it.remove();
+            dirty = true;
+        }
+    }
+
+    private static String key(Path file, String algorithm) {
+        return key(file.toString(), algorithm);
+    }
+
+    private static String key(String file, String algorithm) {
+        return algorithm + '\0' + file;
+    }
+
+    private static String fileKey(BasicFileAttributes attributes) {
+        Object key = attributes.fileKey();
+        return key == null ? "" : key.toString();
+    }
+
+    /**
+     * A remembered hash.
+     */
+    private static final class Entry {
+        final String algorithm;
+        final String path;
+        final long length;
+        final long modified;
+        final String fileKey;
+        final String hash;
+        long lastUsed;
+
+        Entry(String algorithm, String path, long length, long modified, String fileKey, String hash, long lastUsed) {
+            this.algorithm = algorithm;
+            this.path = path;
+            this.length = length;
+            this.modified = modified;
+            this.fileKey = fileKey;
+            this.hash = hash;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return attributes.isRegularFile()
+                    && attributes.size() == length
+                    && attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) == modified
+                    && Objects.equals(fileKey(attributes), fileKey);
+        }
+
+        /**
+         * The approximate number of bytes the entry takes in the cache file.
+         */
+        long size() {
+            return 3 * Long.BYTES + 4 * Short.BYTES + algorithm.length() + path.length() + fileKey.length() + hash.length();
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(algorithm);
+            out.writeUTF(path);
+            out.writeLong(length);
+            out.writeLong(modified);
+            out.writeUTF(fileKey);
+            out.writeUTF(hash);
+            out.writeLong(lastUsed);
+        }
+
+        static Entry read(DataInputStream in) throws IOException {
+            try {
+                return new Entry(in.readUTF(), in.readUTF(), in.readLong(), in.readLong(), in.readUTF(), in.readUTF(),
+                        in.readLong());
+            } catch (EOFException e) {
+                throw new IOException("Truncated hash cache", e);
+            }
+        }
+    }
+}
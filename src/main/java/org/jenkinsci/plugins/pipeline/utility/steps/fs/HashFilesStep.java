@@ -0,0 +1,242 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs;
+
+import com.google.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Descriptor;
+import hudson.model.TaskListener;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes the hashes of all files matching a pattern, on the agent in one go.
+ */
+public class HashFilesStep extends Step {
+    private final String glob;
+    private String excludes;
+    private String algorithm = "SHA-256";
+    private List<String> algorithms;
+    private boolean parallelDigests = false;
+    private int threads = 0;
+    private boolean cache = true;
+
+    @DataBoundConstructor
+    public HashFilesStep(String glob) throws Descriptor.FormException {
+        if (StringUtils.isBlank(glob)) {
+            throw new Descriptor.FormException("can't be blank", "glob");
+        }
+        this.glob = glob;
+    }
+
+    /**
+     * Pattern of the files to hash, relative to the current working directory.
+     *
+     * @return the search pattern
+     */
+    public String getGlob() {
+        return glob;
+    }
+
+    /**
+     * Pattern of the files not to hash.
+     *
+     * @return the excludes pattern
+     */
+    public String getExcludes() {
+        return excludes;
+    }
+
+    /**
+     * Pattern of the files not to hash.
+     *
+     * @param excludes the excludes pattern
+     */
+    @DataBoundSetter
+    public void setExcludes(String excludes) {
+        this.excludes = excludes;
+    }
+
+    /**
+     * The name of the {@link MessageDigest} algorithm to hash with, <code>SHA-256</code> by default.
+     *
+     * @return the algorithm
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * The name of the {@link MessageDigest} algorithm to hash with, e.g. <code>MD5</code>, <code>SHA-1</code>
+     * or <code>SHA-512</code>.
+     *
+     * @param algorithm the algorithm
+     */
+    @DataBoundSetter
+    public void setAlgorithm(String algorithm) {
+        algorithm = StringUtils.isBlank(algorithm) ? "SHA-256" : algorithm.trim();
+        try {
+            MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unknown algorithm '" + algorithm + "'", e);
+        }
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Several {@link MessageDigest} algorithms to hash every file with, reading it only once.
+     * When set the hashes of each file are returned as a map from the algorithm to the hash,
+     * and {@link #getAlgorithm()} is not used.
+     *
+     * @return the algorithms or null
+     */
+    public List<String> getAlgorithms() {
+        return algorithms;
+    }
+
+    /**
+     * Several {@link MessageDigest} algorithms to hash every file with, reading it only once.
+     * When set the hashes of each file are returned as a map from the algorithm to the hash,
+     * and {@link #getAlgorithm()} is not used.
+     *
+     * @param algorithms the algorithms
+     */
+    @DataBoundSetter
+    public void setAlgorithms(List<String> algorithms) {
+        if (algorithms == null || algorithms.isEmpty()) {
+            this.algorithms = null;
+            return;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : algorithms) {
+            try {
+                MessageDigest.getInstance(name.trim());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException("Unknown algorithm '" + name + "'", e);
+            }
+            names.add(name.trim());
+        }
+        this.algorithms = new ArrayList<>(names);
+    }
+
+    /**
+     * If the digests of {@link #getAlgorithms()} should each be updated on a thread of their own,
+     * so a large file is hashed in the time the slowest algorithm takes rather than the sum of all of them.
+     *
+     * @return true to hash on separate threads
+     */
+    public boolean isParallelDigests() {
+        return parallelDigests;
+    }
+
+    /**
+     * If the digests of {@link #getAlgorithms()} should each be updated on a thread of their own,
+     * so a large file is hashed in the time the slowest algorithm takes rather than the sum of all of them.
+     *
+     * @param parallelDigests true to hash on separate threads
+     */
+    @DataBoundSetter
+    public void setParallelDigests(boolean parallelDigests) {
+        this.parallelDigests = parallelDigests;
+    }
+
+    /**
+     * The number of threads to hash the files with, <code>0</code> for one per processor of the agent.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * The number of threads to hash the files with, <code>0</code> for one per processor of the agent.
+     *
+     * @param threads the number of threads
+     */
+    @DataBoundSetter
+    public void setThreads(int threads) {
+        this.threads = Math.max(0, threads);
+    }
+
+    /**
+     * If the hashes may be taken from the hash cache of the agent when a file didn't change since it was last hashed.
+     *
+     * @return true to use the cache
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * If the hashes may be taken from the hash cache of the agent when a file didn't change since it was last hashed.
+     * Set to false to always read the files.
+     *
+     * @param cache true to use the cache
+     */
+    @DataBoundSetter
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new HashFilesStepExecution(this, context);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, FilePath.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "hashFiles";
+        }
+
+        @Override
+        @NonNull
+        public String getDisplayName() {
+            return "Compute the hashes of the files matching a pattern";
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.MasterToSlaveFileCallable;
+import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
+import org.jenkinsci.plugins.pipeline.utility.steps.ParallelDirectoryScanner;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution of {@link HashFilesStep}.
+ */
+public class HashFilesStepExecution extends SynchronousNonBlockingStepExecution<Map<String, Object>> {
+    private static final long serialVersionUID = 1L;
+
+    private transient final HashFilesStep step;
+
+    protected HashFilesStepExecution(@NonNull HashFilesStep step, @NonNull StepContext context) {
+        super(context);
+        this.step = step;
+    }
+
+    @Override
+    protected Map<String, Object> run() throws Exception {
+        TaskListener listener = getContext().get(TaskListener.class);
+        assert listener != null;
+        FilePath ws = getContext().get(FilePath.class);
+        assert ws != null;
+        HashFilesCallable callable = step.getAlgorithms() == null
+                ? new HashFilesCallable(listener, step.getGlob(), step.getExcludes(), step.getAlgorithm(), step.getThreads())
+                : new HashFilesCallable(listener, step.getGlob(), step.getExcludes(),
+                        step.getAlgorithms().toArray(new String[0]), step.isParallelDigests(), step.getThreads());
+        if (step.isCache()) {
+            callable.setCache(HashCache.locate(ws));
+        }
+        return ws.act(callable);
+    }
+
+    /**
+     * Finds and hashes the files on the agent, so all hashes come back in one response
+     * instead of a round trip per file.
+     * With several algorithms every file is still read only once.
+     */
+    static class HashFilesCallable extends MasterToSlaveFileCallable<Map<String, Object>> {
+        private static final long serialVersionUID = 1L;
+
+        private final TaskListener listener;
+        private final String glob;
+        private final String excludes;
+        private final String[] algorithms;
+        private final boolean nested;
+        private final boolean parallelDigests;
+        private final int threads;
+        private String cache;
+
+        /**
+         * Hashes with a single algorithm, the hash of each file is returned as a string.
+         */
+        HashFilesCallable(TaskListener listener, String glob, String excludes, String algorithm, int threads) {
+            this.listener = listener;
+            this.glob = glob;
+            this.excludes = excludes;
+            this.algorithms = new String[] {algorithm};
+            this.nested = false;
+            this.parallelDigests = false;
+            this.threads = threads;
+        }
+
+        /**
+         * Hashes with several algorithms, the hashes of each file are returned as a map from the algorithm to the hash.
+         */
+        HashFilesCallable(TaskListener listener, String glob, String excludes, String[] algorithms,
+                          boolean parallelDigests, int threads) {
+            this.listener = listener;
+            this.glob = glob;
+            this.excludes = excludes;
+            this.algorithms = algorithms;
+            this.nested = true;
+            this.parallelDigests = parallelDigests;
+            this.threads = threads;
+        }
+
+        /**
+         * @param cache the {@link HashCache} file to look the hashes up in and remember them in, or null to read all files
+         */
+        void setCache(String cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Map<String, Object> invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            List<String> found = new ArrayList<>();
+            new ParallelDirectoryScanner(dir, GlobMatcher.of(glob, excludes, true), 1).scan(found::add);
+            String[] paths = found.toArray(new String[0]);
+            AbstractFileCallable.sortPaths(paths);
+
+            String[][] hashes = new String[paths.length][];
+            AtomicInteger next = new AtomicInteger();
+            AtomicLong bytes = new AtomicLong();
+            int workers = Math.min(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), paths.length);
+            ExecutorService digestExecutor = parallelDigests && algorithms.length > 1
+                    ? Executors.newFixedThreadPool(Math.max(1, workers) * algorithms.length,
+                            new NamingThreadFactory(new DaemonThreadFactory(), "hashFiles-digest"))
+                    : null;
+            HashCache hashCache = cache == null ? null : HashCache.get(cache);
+            Runnable worker = () -> {
+                for (int i = next.getAndIncrement(); i < paths.length; i = next.getAndIncrement()) {
+                    File file = new File(dir, paths[i]);
+                    if (!file.isFile()) {
+                        continue;
+                    }
+                    try {
+                        hashes[i] = ComputeHashCallable.hashesOfFile(file, algorithms, hashCache, digestExecutor);
+                    } catch (IOException | NoSuchAlgorithmException | InterruptedException e) {
+                        throw new HashException(file, e);
+                    }
+                    bytes.addAndGet(file.length());
+                }
+            };
+            try {
+                hash(worker, workers);
+            } finally {
+                if (digestExecutor != null) {
+                    digestExecutor.shutdownNow();
+                }
+                if (hashCache != null) {
+                    hashCache.save();
+                }
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (int i = 0; i < paths.length; i++) {
+                if (hashes[i] == null) {
+                    continue;
+                }
+                String path = paths[i].replace(File.separatorChar, '/');
+                if (nested) {
+                    Map<String, String> byAlgorithm = new LinkedHashMap<>();
+                    for (int a = 0; a < algorithms.length; a++) {
+                        byAlgorithm.put(algorithms[a], hashes[i][a]);
+                    }
+                    result.put(path, byAlgorithm);
+                } else {
+                    result.put(path, hashes[i][0]);
+                }
+            }
+            listener.getLogger().printf("Hashed %d files (%d bytes) with %s in %d ms%n", result.size(), bytes.get(),
+                    String.join(", ", algorithms), (System.nanoTime() - start) / 1000000);
+            return result;
+        }
+
+        private static void hash(Runnable worker, int threads) throws IOException, InterruptedException {
+            if (threads <= 1) {
+                try {
+                    worker.run();
+                } catch (HashException e) {
+                    throw e.toIOException();
+                }
+                return;
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads,
+                    new NamingThreadFactory(new DaemonThreadFactory(), "hashFiles"));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(worker));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof HashException) {
+                            throw ((HashException) cause).toIOException();
+                        }
+                        throw new IOException(cause);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Carries the failure to hash a file out of a worker.
+     */
+    private static class HashException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        HashException(File file, Exception cause) {
+            super("Failed to hash " + file + ": " + cause.getMessage(), cause);
+        }
+
+        IOException toIOException() {
+            return new IOException(getMessage(), getCause());
+        }
+    }
+}
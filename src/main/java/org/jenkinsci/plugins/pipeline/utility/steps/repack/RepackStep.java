@@ -0,0 +1,318 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.repack;
+
+import com.google.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Descriptor;
+import hudson.model.TaskListener;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.tar.TarCompression;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Converts a zip or tar file into another zip or tar file, streaming the entries from one to the other
+ * on the agent without extracting them.
+ */
+public class RepackStep extends Step {
+    private final String file;
+    private final String to;
+    private String glob;
+    private String exclude;
+    private String format;
+    private String compression;
+    private int level = -1;
+    private boolean overwrite = false;
+    private boolean quiet = false;
+
+    @DataBoundConstructor
+    public RepackStep(String file, String to) throws Descriptor.FormException {
+        if (StringUtils.isBlank(file)) {
+            throw new Descriptor.FormException("Can not be empty", "file");
+        }
+        if (StringUtils.isBlank(to)) {
+            throw new Descriptor.FormException("Can not be empty", "to");
+        }
+        this.file = file;
+        this.to = to;
+    }
+
+    /**
+     * The zip or tar file to read, the format and compression are detected from its content.
+     *
+     * @return the path of the file to read
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * The file to write.
+     *
+     * @return the path of the file to write
+     */
+    public String getTo() {
+        return to;
+    }
+
+    /**
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
+     * of the entries to copy. Leave empty to copy all entries.
+     *
+     * @return the include pattern
+     */
+    public String getGlob() {
+        return glob;
+    }
+
+    /**
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
+     * of the entries to copy. Leave empty to copy all entries.
+     *
+     * @param glob the include pattern
+     */
+    @DataBoundSetter
+    public void setGlob(String glob) {
+        this.glob = glob;
+    }
+
+    /**
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
+     * of the entries not to copy.
+     *
+     * @return the exclude pattern
+     */
+    public String getExclude() {
+        return exclude;
+    }
+
+    /**
+     * Comma separated <a href="https://ant.apache.org/manual/dirtasks.html#patterns" target="_blank">Ant style patterns</a>
+     * of the entries not to copy.
+     *
+     * @param exclude the exclude pattern
+     */
+    @DataBoundSetter
+    public void setExclude(String exclude) {
+        this.exclude = exclude;
+    }
+
+    /**
+     * The format of the file to write, <code>zip</code> or <code>tar</code>.
+     * When not set it is <code>zip</code> for files ending in <code>.zip</code>, <code>.jar</code>,
+     * <code>.war</code> or <code>.ear</code> and <code>tar</code> otherwise.
+     *
+     * @return the format or null
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * The format of the file to write, <code>zip</code> or <code>tar</code>.
+     * When not set it is <code>zip</code> for files ending in <code>.zip</code>, <code>.jar</code>,
+     * <code>.war</code> or <code>.ear</code> and <code>tar</code> otherwise.
+     *
+     * @param format the format
+     */
+    @DataBoundSetter
+    public void setFormat(String format) {
+        format = StringUtils.trimToNull(format);
+        if (format != null && !"zip".equalsIgnoreCase(format) && !"tar".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unknown format '" + format + "', expected zip or tar");
+        }
+        this.format = format;
+    }
+
+    /**
+     * If the file to write is a zip file.
+     *
+     * @return true for zip, false for tar
+     */
+    public boolean isZip() {
+        if (format != null) {
+            return "zip".equalsIgnoreCase(format);
+        }
+        String name = to.toLowerCase(Locale.ENGLISH);
+        return name.endsWith(".zip") || name.endsWith(".jar") || name.endsWith(".war") || name.endsWith(".ear");
+    }
+
+    /**
+     * The compression codec of a tar file to write, one of <code>none</code>, <code>gzip</code>, <code>bzip2</code>,
+     * <code>xz</code>, <code>zstd</code> or <code>lz4</code>.
+     * When not set it is chosen by the file name, e.g. gzip for <code>.tgz</code> and <code>.tar.gz</code>.
+     *
+     * @return the name of the codec or null
+     */
+    public String getCompression() {
+        return compression;
+    }
+
+    /**
+     * The compression codec of a tar file to write, one of <code>none</code>, <code>gzip</code>, <code>bzip2</code>,
+     * <code>xz</code>, <code>zstd</code> or <code>lz4</code>.
+     * When not set it is chosen by the file name, e.g. gzip for <code>.tgz</code> and <code>.tar.gz</code>.
+     *
+     * @param compression the name of the codec
+     */
+    @DataBoundSetter
+    public void setCompression(String compression) {
+        this.compression = TarCompression.fromName(compression) == null ? null : compression.trim();
+    }
+
+    /**
+     * The codec a tar file will be compressed with.
+     *
+     * @return the codec from {@link #getCompression()} or the file name
+     */
+    @NonNull
+    public TarCompression getCompressionCodec() {
+        TarCompression codec = TarCompression.fromName(compression);
+        if (codec != null) {
+            return codec;
+        }
+        codec = codecOf(to);
+        return codec == null ? TarCompression.NONE : codec;
+    }
+
+    @CheckForNull
+    private static TarCompression codecOf(String name) {
+        String lower = name.toLowerCase(Locale.ENGLISH);
+        if (lower.endsWith(".tgz") || lower.endsWith(".gz")) {
+            return TarCompression.GZIP;
+        } else if (lower.endsWith(".tbz2") || lower.endsWith(".bz2")) {
+            return TarCompression.BZIP2;
+        } else if (lower.endsWith(".txz") || lower.endsWith(".xz")) {
+            return TarCompression.XZ;
+        } else if (lower.endsWith(".tzst") || lower.endsWith(".zst")) {
+            return TarCompression.ZSTD;
+        } else if (lower.endsWith(".lz4")) {
+            return TarCompression.LZ4;
+        }
+        return null;
+    }
+
+    /**
+     * The compression level, <code>-1</code> for the default of the format.
+     * Entries of a zip file written to a zip file are copied without compressing them again,
+     * unless a level is set.
+     *
+     * @return the compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * The compression level, <code>-1</code> for the default of the format.
+     * Entries of a zip file written to a zip file are copied without compressing them again,
+     * unless a level is set.
+     *
+     * @param level the compression level
+     * @throws IllegalArgumentException if the level is not between <code>0</code> and <code>9</code> or <code>-1</code>
+     */
+    @DataBoundSetter
+    public void setLevel(int level) {
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("Invalid compression level: " + level
+                    + ", expected 0 to 9, or -1 for the default");
+        }
+        this.level = level;
+    }
+
+    /**
+     * If an existing file should be overwritten.
+     *
+     * @return true to overwrite
+     */
+    public boolean isOverwrite() {
+        return overwrite;
+    }
+
+    /**
+     * If an existing file should be overwritten.
+     *
+     * @param overwrite true to overwrite
+     */
+    @DataBoundSetter
+    public void setOverwrite(boolean overwrite) {
+        this.overwrite = overwrite;
+    }
+
+    /**
+     * Suppress the logging of every copied entry.
+     *
+     * @return true to not log the entries
+     */
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    /**
+     * Suppress the logging of every copied entry.
+     *
+     * @param quiet true to not log the entries
+     */
+    @DataBoundSetter
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new RepackStepExecution(this, context);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, FilePath.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "repack";
+        }
+
+        @Override
+        @NonNull
+        public String getDisplayName() {
+            return "Convert a zip or tar file into another zip or tar file";
+        }
+    }
+}
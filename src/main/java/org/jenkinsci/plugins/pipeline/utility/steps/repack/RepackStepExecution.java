@@ -0,0 +1,470 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.repack;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
+import org.jenkinsci.plugins.pipeline.utility.steps.DecompressStepExecution;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
+import org.jenkinsci.plugins.pipeline.utility.steps.LocalDestination;
+import org.jenkinsci.plugins.pipeline.utility.steps.tar.TarCompression;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Enumeration;
+
+/**
+ * Execution of {@link RepackStep}.
+ */
+public class RepackStepExecution extends SynchronousNonBlockingStepExecution<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    private transient final RepackStep step;
+
+    protected RepackStepExecution(@NonNull RepackStep step, @NonNull StepContext context) {
+        super(context);
+        this.step = step;
+    }
+
+    @Override
+    protected Integer run() throws Exception {
+        TaskListener listener = getContext().get(TaskListener.class);
+        assert listener != null;
+
+        FilePath ws = getContext().get(FilePath.class);
+        assert ws != null;
+
+        FilePath source = ws.child(step.getFile());
+        if (!source.exists()) {
+            throw new IOException(source.getRemote() + " does not exist.");
+        } else if (source.isDirectory()) {
+            throw new IOException(source.getRemote() + " is a directory.");
+        }
+        FilePath destination = ws.child(step.getTo());
+        if (destination.getRemote().equals(source.getRemote())) {
+            throw new IOException(source.getRemote() + " can't be repacked into itself.");
+        } else if (destination.exists() && !step.isOverwrite()) {
+            throw new IOException(destination.getRemote() + " exists.");
+        }
+        TarCompression compression = step.isZip() ? null : step.getCompressionCodec();
+
+        PrintStream logger = listener.getLogger();
+        logger.print("Repack " + source.getRemote());
+        if (!StringUtils.isBlank(step.getGlob()) || !StringUtils.isBlank(step.getExclude())) {
+            logger.print(" filtered by [" + step.getGlob() + "] - [" + step.getExclude() + "]");
+        }
+        logger.println(" to " + destination.getRemote());
+
+        RepackFileCallable callable = new RepackFileCallable(listener, step.getGlob(), step.getExclude(), compression,
+                step.getLevel(), step.isQuiet());
+        callable.setDestination(destination);
+        callable.setAllowExtractionOutsideDestination(DecompressStepExecution.ALLOW_EXTRACTION_OUTSIDE_DESTINATION);
+        Integer count = source.act(callable);
+        logger.println("Repacked " + count + " entries.");
+        return count;
+    }
+
+    /**
+     * Copies the entries of a zip or tar file into a new zip or tar file on the agent where the source file is.
+     *
+     * Entry names are checked the same way as when extracting, as if the source file was extracted into a directory,
+     * so the new file can't contain entries that the source file wouldn't be allowed to extract.
+     */
+    static class RepackFileCallable extends AbstractFileCallable<Integer> {
+        private static final long serialVersionUID = 1L;
+        private static final int DEFAULT_FILE_MODE = 0644;
+        private static final int DEFAULT_DIR_MODE = 0755;
+
+        private final TaskListener listener;
+        private final String glob;
+        private final String exclude;
+        private final TarCompression compression;
+        private final int level;
+        private final boolean quiet;
+
+        /**
+         * @param compression the codec of the tar file to write, or null to write a zip file
+         */
+        RepackFileCallable(TaskListener listener, String glob, String exclude, TarCompression compression, int level,
+                           boolean quiet) {
+            this.listener = listener;
+            this.glob = glob;
+            this.exclude = exclude;
+            this.compression = compression;
+            this.level = level;
+            this.quiet = quiet;
+        }
+
+        @Override
+        public Integer invoke(File file, VirtualChannel channel) throws IOException, InterruptedException {
+            PrintStream logger = listener.getLogger();
+            GlobMatcher matcher = StringUtils.isBlank(glob) && StringUtils.isBlank(exclude)
+                    ? null : GlobMatcher.of(glob, exclude, false);
+            // a nominal directory to check the entry names against, nothing is written to it
+            LocalDestination names = new LocalDestination(file, isAllowExtractionOutsideDestination());
+            try (Output output = compression == null ? new ZipOutput(writeDestination(), level)
+                    : new TarOutput(compression.createOutputStream(writeDestination(), level, 1))) {
+                int count;
+                if (isZip(file)) {
+                    count = repackZip(file, names, matcher, output, logger);
+                } else {
+                    count = repackTar(file, names, matcher, output, logger);
+                }
+                output.finish();
+                return count;
+            } finally {
+                logger.flush();
+            }
+        }
+
+        private static boolean isZip(File file) throws IOException {
+            byte[] signature = new byte[TarCompression.SIGNATURE_LENGTH];
+            try (InputStream in = new FileInputStream(file)) {
+                int read = IOUtils.read(in, signature);
+                return ZipArchiveInputStream.matches(signature, read);
+            }
+        }
+
+        private int repackZip(File file, LocalDestination names, GlobMatcher matcher, Output output, PrintStream logger)
+                throws IOException {
+            int count = 0;
+            try (ZipFile zip = ZipFile.builder().setFile(file).get()) {
+                Enumeration<ZipArchiveEntry> entries = zip.getEntriesInPhysicalOrder();
+                while (entries.hasMoreElements()) {
+                    ZipArchiveEntry entry = entries.nextElement();
+                    if (matcher != null && !matcher.matches(entry.getName())) {
+                        continue;
+                    }
+                    String name = checkName(names, entry.getName());
+                    int mode = entry.getUnixMode() & 07777;
+                    long modified = entry.getTime();
+                    if (entry.isDirectory()) {
+                        output.directory(name, mode == 0 ? DEFAULT_DIR_MODE : mode, modified);
+                    } else if (entry.isUnixSymlink()) {
+                        String target = zip.getUnixSymlink(entry);
+                        checkLink(names, name, target);
+                        log(logger, name, target);
+                        output.symbolicLink(name, target, modified);
+                    } else {
+                        log(logger, name, null);
+                        if (output instanceof ZipOutput && level < 0) {
+                            ((ZipOutput) output).raw(entry, name, zip.getRawInputStream(entry));
+                        } else {
+                            try (InputStream in = zip.getInputStream(entry)) {
+                                output.file(name, mode == 0 ? DEFAULT_FILE_MODE : mode, modified, entry.getSize(), in);
+                            }
+                        }
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private int repackTar(File file, LocalDestination names, GlobMatcher matcher, Output output, PrintStream logger)
+                throws IOException {
+            int count = 0;
+            try (InputStream fileStream = new BufferedInputStream(new FileInputStream(file))) {
+                byte[] signature = new byte[TarCompression.SIGNATURE_LENGTH];
+                fileStream.mark(signature.length);
+                int read = IOUtils.read(fileStream, signature);
+                fileStream.reset();
+                InputStream in = TarCompression.detect(signature, read).createInputStream(fileStream);
+                TarArchiveInputStream tarStream = new TarArchiveInputStream(in);
+                TarArchiveEntry entry;
+                while ((entry = tarStream.getNextTarEntry()) != null) {
+                    if (matcher != null && !matcher.matches(entry.getName())) {
+                        continue;
+                    }
+                    if (!entry.isCheckSumOK()) {
+                        throw new IOException("Not a tar archive");
+                    }
+                    String name = checkName(names, entry.getName());
+                    int mode = entry.getMode() & 07777;
+                    long modified = entry.getModTime().getTime();
+                    if (entry.isDirectory()) {
+                        output.directory(name, mode, modified);
+                    } else if (entry.isSymbolicLink()) {
+                        checkLink(names, name, entry.getLinkName());
+                        log(logger, name, entry.getLinkName());
+                        output.symbolicLink(name, entry.getLinkName(), modified);
+                    } else if (entry.isLink()) {
+                        String target = checkName(names, entry.getLinkName());
+                        if (!output.link(name, target, mode, modified)) {
+                            if (!quiet) {
+                                logger.printf("Skipping link: %s -> %s%n", name, target);
+                            }
+                            continue;
+                        }
+                        log(logger, name, target);
+                    } else if (entry.isFile()) {
+                        log(logger, name, null);
+                        output.file(name, mode, modified, entry.getRealSize(), tarStream);
+                    } else {
+                        if (!quiet) {
+                            logger.println("Skipping: " + name);
+                        }
+                        continue;
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private void log(PrintStream logger, String name, String link) {
+            if (quiet) {
+                return;
+            }
+            if (link == null) {
+                logger.println("Repacking: " + name);
+            } else {
+                logger.printf("Repacking: %s -> %s%n", name, link);
+            }
+        }
+
+        /**
+         * Normalizes an entry name and checks that it wouldn't be extracted outside of the destination.
+         *
+         * @return the normalized name with <code>/</code> separators
+         */
+        private static String checkName(LocalDestination names, String name) throws FileNotFoundException {
+            Path path = names.resolve(name);
+            if (!path.startsWith(names.getBase())) {
+                // allowed by the escape hatch
+                return name;
+            }
+            String normalized = names.getBase().relativize(path).toString().replace(File.separatorChar, '/');
+            if (normalized.isEmpty()) {
+                throw new FileNotFoundException(name + " is not a valid entry name");
+            }
+            return name.endsWith("/") ? normalized + "/" : normalized;
+        }
+
+        private static void checkLink(LocalDestination names, String name, String target) throws FileNotFoundException {
+            Path link = names.resolve(name);
+            Path resolved = link.resolveSibling(target).normalize();
+            if (new File(target).isAbsolute() || !names.contains(resolved)) {
+                throw new FileNotFoundException(name + " -> " + target + " is out of bounds!");
+            }
+        }
+    }
+
+    /**
+     * The file being written, either a zip or a tar file.
+     */
+    private abstract static class Output implements AutoCloseable {
+        abstract void directory(String name, int mode, long modified) throws IOException;
+
+        /**
+         * @param size the size of the content, or -1 if unknown
+         */
+        abstract void file(String name, int mode, long modified, long size, InputStream content) throws IOException;
+
+        abstract void symbolicLink(String name, String target, long modified) throws IOException;
+
+        /**
+         * @return false if the format has no hard links
+         */
+        abstract boolean link(String name, String target, int mode, long modified) throws IOException;
+
+        abstract void finish() throws IOException;
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+
+    private static class ZipOutput extends Output {
+        private final ZipArchiveOutputStream zip;
+
+        ZipOutput(OutputStream out, int level) {
+            zip = new ZipArchiveOutputStream(out);
+            zip.setLevel(level);
+        }
+
+        @Override
+        void directory(String name, int mode, long modified) throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name.endsWith("/") ? name : name + "/");
+            entry.setUnixMode(UnixStat.DIR_FLAG | mode);
+            entry.setTime(modified);
+            zip.putArchiveEntry(entry);
+            zip.closeArchiveEntry();
+        }
+
+        @Override
+        void file(String name, int mode, long modified, long size, InputStream content) throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setUnixMode(UnixStat.FILE_FLAG | mode);
+            entry.setTime(modified);
+            if (size >= 0) {
+                entry.setSize(size);
+            }
+            zip.putArchiveEntry(entry);
+            IOUtils.copy(content, zip);
+            zip.closeArchiveEntry();
+        }
+
+        /**
+         * Copies the compressed content of an entry of another zip file as it is.
+         */
+        void raw(ZipArchiveEntry source, String name, InputStream content) throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setMethod(source.getMethod());
+            entry.setGeneralPurposeBit(source.getGeneralPurposeBit());
+            entry.setCrc(source.getCrc());
+            entry.setSize(source.getSize());
+            entry.setCompressedSize(source.getCompressedSize());
+            entry.setTime(source.getTime());
+            entry.setInternalAttributes(source.getInternalAttributes());
+            if (source.getPlatform() == ZipArchiveEntry.PLATFORM_UNIX) {
+                entry.setUnixMode(source.getUnixMode());
+            } else {
+                entry.setExternalAttributes(source.getExternalAttributes());
+            }
+            try (InputStream in = content) {
+                zip.addRawArchiveEntry(entry, in);
+            }
+        }
+
+        @Override
+        void symbolicLink(String name, String target, long modified) throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setUnixMode(UnixStat.LINK_FLAG | UnixStat.DEFAULT_LINK_PERM);
+            entry.setTime(modified);
+            byte[] content = target.getBytes(StandardCharsets.UTF_8);
+            entry.setSize(content.length);
+            zip.putArchiveEntry(entry);
+            zip.write(content);
+            zip.closeArchiveEntry();
+        }
+
+        @Override
+        boolean link(String name, String target, int mode, long modified) {
+            return false;
+        }
+
+        @Override
+        void finish() throws IOException {
+            zip.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+
+    private static class TarOutput extends Output {
+        private final TarArchiveOutputStream tar;
+
+        TarOutput(OutputStream out) {
+            tar = new TarArchiveOutputStream(out);
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
+            tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_STAR);
+        }
+
+        @Override
+        void directory(String name, int mode, long modified) throws IOException {
+            TarArchiveEntry entry = new TarArchiveEntry(name.endsWith("/") ? name : name + "/");
+            entry.setMode(TarArchiveEntry.DEFAULT_DIR_MODE & ~07777 | mode);
+            entry.setModTime(new Date(modified));
+            tar.putArchiveEntry(entry);
+            tar.closeArchiveEntry();
+        }
+
+        @Override
+        void file(String name, int mode, long modified, long size, InputStream content) throws IOException {
+            if (size < 0) {
+                // the size has to be known before the content, so buffer content of unknown size
+                byte[] buffer = IOUtils.toByteArray(content);
+                size = buffer.length;
+                content = new ByteArrayInputStream(buffer);
+            }
+            TarArchiveEntry entry = new TarArchiveEntry(name);
+            entry.setMode(TarArchiveEntry.DEFAULT_FILE_MODE & ~07777 | mode);
+            entry.setModTime(new Date(modified));
+            entry.setSize(size);
+            tar.putArchiveEntry(entry);
+            IOUtils.copyLarge(content, tar, 0, size);
+            tar.closeArchiveEntry();
+        }
+
+        @Override
+        void symbolicLink(String name, String target, long modified) throws IOException {
+            TarArchiveEntry entry = new TarArchiveEntry(name, TarConstants.LF_SYMLINK);
+            entry.setLinkName(target);
+            entry.setModTime(new Date(modified));
+            tar.putArchiveEntry(entry);
+            tar.closeArchiveEntry();
+        }
+
+        @Override
+        boolean link(String name, String target, int mode, long modified) throws IOException {
+            TarArchiveEntry entry = new TarArchiveEntry(name, TarConstants.LF_LINK);
+            entry.setLinkName(target);
+            entry.setMode(TarArchiveEntry.DEFAULT_FILE_MODE & ~07777 | mode);
+            entry.setModTime(new Date(modified));
+            tar.putArchiveEntry(entry);
+            tar.closeArchiveEntry();
+            return true;
+        }
+
+        @Override
+        void finish() throws IOException {
+            tar.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            tar.close();
+        }
+    }
+}
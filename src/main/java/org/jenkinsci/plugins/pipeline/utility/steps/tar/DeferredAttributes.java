@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import org.jenkinsci.plugins.pipeline.utility.steps.LocalDestination;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the permissions, modification times and links of the extracted entries and applies them
+ * in one batch once all files are written.
+ *
+ * The entries are kept in parallel primitive arrays instead of an object per entry.
+ * Links are only created once all files are written, so no extracted file can be written through a link
+ * from the archive.
+ * Directories are handled last and deepest first, so a read-only directory doesn't stop the extraction
+ * and the modification time of a directory isn't changed again by anything created in it.
+ */
+final class DeferredAttributes {
+    private static final byte FILE = 0;
+    private static final byte DIRECTORY = 1;
+    private static final byte SYMLINK = 2;
+    private static final byte HARDLINK = 3;
+
+    private final boolean permissions;
+    private final boolean timestamps;
+    private Path[] paths = new Path[64];
+    private byte[] types = new byte[64];
+    private int[] modes = new int[64];
+    private long[] modified = new long[64];
+    private String[] links;
+    private int size;
+
+    /**
+     * @param permissions if the modes should be applied
+     * @param timestamps if the modification times should be applied
+     */
+    DeferredAttributes(boolean permissions, boolean timestamps) {
+        this.permissions = permissions;
+        this.timestamps = timestamps;
+    }
+
+    /**
+     * If there is anything to apply to regular files and directories.
+     *
+     * @return true if the modes or modification times are kept
+     */
+    boolean isEnabled() {
+        return permissions || timestamps;
+    }
+
+    /**
+     * Records the attributes of an extracted file.
+     *
+     * @param path the file
+     * @param mode the unix mode
+     * @param lastModified the modification time in milliseconds since the epoch
+     */
+    void addFile(Path path, int mode, long lastModified) {
+        if (isEnabled()) {
+            add(path, FILE, mode, lastModified, null);
+        }
+    }
+
+    /**
+     * Records the attributes of an extracted directory.
+     *
+     * @param path the directory
+     * @param mode the unix mode
+     * @param lastModified the modification time in milliseconds since the epoch
+     */
+    void addDirectory(Path path, int mode, long lastModified) {
+        if (isEnabled()) {
+            add(path, DIRECTORY, mode, lastModified, null);
+        }
+    }
+
+    /**
+     * Records a symbolic link to create.
+     *
+     * @param path the link
+     * @param target the target as stored in the archive
+     */
+    void addSymbolicLink(Path path, String target) {
+        add(path, SYMLINK, -1, 0, target);
+    }
+
+    /**
+     * Records a hard link to create.
+     *
+     * @param path the link
+     * @param target the name of the linked entry as stored in the archive
+     */
+    void addLink(Path path, String target) {
+        add(path, HARDLINK, -1, 0, target);
+    }
+
+    private void add(Path path, byte type, int mode, long lastModified, String link) {
+        if (size == paths.length) {
+            int capacity = size * 2;
+            paths = Arrays.copyOf(paths, capacity);
+            types = Arrays.copyOf(types, capacity);
+            modes = Arrays.copyOf(modes, capacity);
+            modified = Arrays.copyOf(modified, capacity);
+            if (links != null) {
+                links = Arrays.copyOf(links, capacity);
+            }
+        }
+        if (link != null && links == null) {
+            links = new String[paths.length];
+        }
+        paths[size] = path;
+        types[size] = type;
+        modes[size] = mode;
+        modified[size] = lastModified;
+        if (links != null) {
+            links[size] = link;
+        }
+        size++;
+    }
+
+    /**
+     * Applies the attributes to the files, creates the links and then applies the attributes to the directories,
+     * deepest first.
+     *
+     * @param destination the destination the entries were extracted to
+     * @throws IOException if a link points out of the destination or an attribute could not be applied
+     */
+    void apply(LocalDestination destination) throws IOException {
+        int directories = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == FILE) {
+                apply(destination, i);
+            } else if (types[i] == DIRECTORY) {
+                directories++;
+            }
+        }
+        // hard links before symbolic links, so their target can't have been replaced by one
+        for (int i = 0; i < size; i++) {
+            if (types[i] == HARDLINK) {
+                destination.createLink(paths[i], destination.resolve(links[i]));
+            }
+        }
+        List<Path> symbolicLinks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (types[i] == SYMLINK) {
+                destination.createSymbolicLink(paths[i], links[i]);
+                symbolicLinks.add(paths[i]);
+            }
+        }
+        // before the directories, their attributes must not be applied through a link that leads out
+        destination.checkSymbolicLinks(symbolicLinks);
+        if (directories == 0) {
+            return;
+        }
+        // sort by descending depth, then by order of appearance, packed into one primitive key
+        long[] order = new long[directories];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == DIRECTORY) {
+                order[next++] = ((long) (Integer.MAX_VALUE - paths[i].getNameCount()) << 32) | i;
+            }
+        }
+        Arrays.sort(order);
+        for (long key : order) {
+            apply(destination, (int) key);
+        }
+    }
+
+    private void apply(LocalDestination destination, int i) throws IOException {
+        if (permissions) {
+            destination.chmod(paths[i], modes[i]);
+        }
+        if (timestamps) {
+            destination.setLastModifiedTime(paths[i], modified[i]);
+        }
+    }
+}
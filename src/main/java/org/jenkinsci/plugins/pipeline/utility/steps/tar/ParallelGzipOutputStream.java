@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A gzip {@link OutputStream} that splits the data into fixed size blocks and compresses them on a pool of threads,
+ * like <a href="https://zlib.net/pigz/">pigz</a> does.
+ *
+ * Every block is written as an independent gzip member, so the result is a multi-member gzip file
+ * that can be read by any gzip implementation that supports concatenated members
+ * (<code>gzip</code>, <code>tar -xz</code> and {@link org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream}
+ * with <code>decompressConcatenated</code>).
+ * As every member can be decompressed on its own, the members are the checkpoints of a {@link TarIndex}.
+ */
+class ParallelGzipOutputStream extends OutputStream {
+    static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    private static final byte[] HEADER = {
+            (byte) 0x1f, (byte) 0x8b, // magic
+            Deflater.DEFLATED, // compression method
+            0, // flags
+            0, 0, 0, 0, // modification time
+            0, // extra flags
+            (byte) 0xff // unknown OS
+    };
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private final Deque<Integer> pendingLengths = new ArrayDeque<>();
+    private final int window;
+    private final int blockSize;
+    private final int level;
+    private byte[] block;
+    private int count;
+    private long members;
+    private long compressedOffset;
+    private long uncompressedOffset;
+    private TarIndex index;
+    private boolean closed;
+
+    ParallelGzipOutputStream(OutputStream out, int threads, int level, int blockSize) {
+        this.out = out;
+        this.level = level;
+        this.blockSize = blockSize;
+        int poolSize = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(poolSize, new NamingThreadFactory(new DaemonThreadFactory(), "gzip"));
+        this.window = poolSize * 2;
+        this.block = new byte[blockSize];
+    }
+
+    /**
+     * Records where every member starts in the index.
+     *
+     * @param index the index of the tar file that is written to this stream
+     */
+    void setIndex(TarIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes all blocks that have been handed to the compression threads.
+     * The partially filled current block is kept so that flushing does not produce tiny members.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (count > 0 || members + pending.size() == 0) {
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+        } finally {
+            closed = true;
+            executor.shutdownNow();
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = block;
+        final int length = count;
+        pending.add(executor.submit(() -> compress(data, length, level)));
+        pendingLengths.add(length);
+        block = new byte[blockSize];
+        count = 0;
+        while (pending.size() >= window) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        try {
+            byte[] member = pending.peek().get();
+            if (index != null) {
+                index.addMember(compressedOffset, uncompressedOffset);
+            }
+            out.write(member);
+            compressedOffset += member.length;
+            uncompressedOffset += pendingLengths.peek();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        pending.remove();
+        pendingLengths.remove();
+        members++;
+    }
+
+    /**
+     * Compresses one block into a complete gzip member.
+     */
+    static byte[] compress(byte[] data, int length, int level) {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+        member.write(HEADER, 0, HEADER.length);
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                member.write(buffer, 0, n);
+            }
+        } finally {
+            deflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        writeInt(member, (int) crc.getValue());
+        writeInt(member, length);
+        return member.toByteArray();
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        out.write((value >>> 16) & 0xff);
+        out.write((value >>> 24) & 0xff);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.apache.commons.io.IOUtils;
+import org.jenkinsci.plugins.pipeline.utility.steps.LocalDestination;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes the files of a tar stream on a pool of threads while the calling thread keeps decompressing.
+ *
+ * The content of an entry is read into memory by the calling thread and handed to a writer thread
+ * that creates the file, writes it and closes it.
+ * The total size of the buffered entries is bounded by the memory limit, the reader blocks until
+ * the writers have freed enough memory.
+ * Entries too large to share the memory with others are written by the calling thread directly.
+ * Entries for a path that is still being written wait for the earlier write,
+ * so the last entry for a path wins like it does for <code>tar</code>.
+ */
+class PipelinedEntryWriter implements Closeable {
+    /**
+     * The default memory limit in MiB.
+     */
+    static final int DEFAULT_MEMORY_LIMIT = 64;
+
+    private final ExecutorService executor;
+    private final Deque<Future<Void>> pending = new ArrayDeque<>();
+    /**
+     * The last write of every path that isn't done yet.
+     */
+    private final Map<Path, CompletableFuture<Void>> writing = new ConcurrentHashMap<>();
+    private final LocalDestination destination;
+    private final Semaphore memory;
+    private final int largeEntry;
+
+    /**
+     * @param destination the destination to write the files to
+     * @param threads the number of writer threads
+     * @param memoryLimit the maximum number of bytes buffered for the writer threads
+     */
+    PipelinedEntryWriter(LocalDestination destination, int threads, long memoryLimit) {
+        this.destination = destination;
+        int limit = (int) Math.min(Integer.MAX_VALUE, Math.max(1, memoryLimit));
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), new NamingThreadFactory(new DaemonThreadFactory(), "untar"));
+        memory = new Semaphore(limit);
+        // leave room for other entries so a single large file doesn't stall the pipeline
+        largeEntry = limit / 4;
+    }
+
+    /**
+     * Writes the current entry of the stream to the target.
+     *
+     * @param in the stream positioned at the content of the entry
+     * @param size the size of the entry or a negative number if it is not known up front
+     * @param target the file to write
+     * @throws IOException if reading the entry or an earlier write failed
+     * @throws InterruptedException if interrupted while waiting for memory
+     */
+    void write(InputStream in, long size, Path target) throws IOException, InterruptedException {
+        reap();
+        // create the directories up front so the writer threads don't race on them
+        destination.createDirectories(target.getParent());
+        CompletableFuture<Void> previous = writing.get(target);
+        if (size < 0 || size > largeEntry) {
+            if (previous != null) {
+                await(previous);
+            }
+            try (OutputStream out = destination.newOutputStream(target)) {
+                IOUtils.copy(in, out);
+            }
+            return;
+        }
+        final int length = (int) size;
+        memory.acquire(length);
+        final byte[] data;
+        try {
+            data = new byte[length];
+            IOUtils.readFully(in, data);
+        } catch (IOException | RuntimeException e) {
+            memory.release(length);
+            throw e;
+        }
+        // the outcome of the previous write is reported by its own future
+        CompletableFuture<Void> after = previous == null ? CompletableFuture.completedFuture(null) : previous.handle((v, e) -> null);
+        CompletableFuture<Void> future = after.thenRunAsync(() -> {
+            try (OutputStream out = destination.newOutputStream(target)) {
+                out.write(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                memory.release(length);
+            }
+        }, executor);
+        writing.put(target, future);
+        future.whenComplete((v, e) -> writing.remove(target, future));
+        pending.add(future);
+    }
+
+    /**
+     * Waits for all files to be written.
+     *
+     * @throws IOException if a write failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void finish() throws IOException, InterruptedException {
+        while (!pending.isEmpty()) {
+            await(pending.remove());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Future<Void> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+        writing.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Fails early if one of the files that are already done could not be written.
+     */
+    private void reap() throws IOException, InterruptedException {
+        while (!pending.isEmpty() && pending.peek().isDone()) {
+            await(pending.remove());
+        }
+    }
+
+    private static void await(Future<Void> future) throws IOException, InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
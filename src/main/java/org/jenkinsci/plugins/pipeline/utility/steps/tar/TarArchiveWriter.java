@@ -0,0 +1,277 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import hudson.util.IOUtils;
+import hudson.util.io.Archiver;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.compress.archivers.zip.ZipEncoding;
+import org.apache.commons.compress.archivers.zip.ZipEncodingHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * An {@link Archiver} that writes a tar stream the same way {@link hudson.util.io.ArchiverFactory#TAR} does
+ * (GNU long names, star big numbers), but copies the content of the files without going through heap buffers
+ * when writing to a {@link FileChannel}.
+ *
+ * The content of every file is handed to {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * which lets the operating system copy it directly from the page cache into the archive,
+ * so writing an uncompressed tar of large files is bound by the disk rather than by buffer copies.
+ */
+class TarArchiveWriter extends Archiver {
+    private static final int RECORD_SIZE = TarConstants.DEFAULT_RCDSIZE;
+    private static final int BLOCK_SIZE = TarConstants.DEFAULT_BLKSIZE;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 1980-01-01T00:00:00Z, the modification time of all entries in a reproducible tar file.
+     */
+    private static final long REPRODUCIBLE_TIME = 315532800000L;
+
+    private final FileChannel channel;
+    private final OutputStream stream;
+    private final byte[] header = new byte[RECORD_SIZE];
+    private ZipEncoding encoding = ZipEncodingHelper.getZipEncoding(Charset.defaultCharset());
+    private long offset;
+    private boolean closed;
+    private boolean reproducible;
+    private TarIndex index;
+
+    /**
+     * Writes the tar file directly to a file, using zero-copy transfers for the content.
+     *
+     * @param channel the tar file
+     */
+    TarArchiveWriter(FileChannel channel) {
+        this.channel = channel;
+        this.stream = null;
+    }
+
+    /**
+     * Writes the tar stream to a stream, typically a compressing one.
+     *
+     * @param stream the stream to write to
+     */
+    TarArchiveWriter(OutputStream stream) {
+        this.channel = null;
+        this.stream = stream;
+    }
+
+    /**
+     * Makes the tar file depend on nothing but the names and content of the files:
+     * the modification times are fixed, the owner is root, the permissions are reduced to executable or not
+     * and the names encoded in UTF-8.
+     * The files still need to be visited in a stable order.
+     *
+     * @param reproducible true to write a reproducible tar file
+     */
+    void setReproducible(boolean reproducible) {
+        this.reproducible = reproducible;
+        encoding = ZipEncodingHelper.getZipEncoding(reproducible ? StandardCharsets.UTF_8 : Charset.defaultCharset());
+    }
+
+    /**
+     * Records where the header of every entry starts in the index.
+     *
+     * @param index the index of the tar file
+     */
+    void setIndex(TarIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void visit(File file, String relativePath) throws IOException {
+        String name = relativePath.replace('\\', '/');
+        Path path = file.toPath();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        TarArchiveEntry entry;
+        if (attributes.isSymbolicLink()) {
+            entry = new TarArchiveEntry(name, TarConstants.LF_SYMLINK);
+            entry.setLinkName(Files.readSymbolicLink(path).toString());
+        } else if (attributes.isDirectory()) {
+            entry = new TarArchiveEntry(name + '/');
+        } else {
+            entry = new TarArchiveEntry(name);
+            entry.setSize(attributes.size());
+        }
+        int mode = IOUtils.mode(file);
+        if (reproducible) {
+            normalize(entry, mode);
+        } else {
+            if (mode != -1) {
+                entry.setMode(mode);
+            }
+            entry.setModTime(attributes.lastModifiedTime().toMillis());
+        }
+
+        if (index != null) {
+            index.addEntry(entry.getName(), offset);
+        }
+        writeHeader(entry);
+        if (entry.isFile() && entry.getSize() > 0) {
+            writeContent(path, entry.getSize());
+        }
+        entriesWritten++;
+    }
+
+    private static void normalize(TarArchiveEntry entry, int mode) {
+        if (entry.isSymbolicLink()) {
+            entry.setMode(0120777);
+        } else if (entry.isDirectory() || (mode != -1 && (mode & 0111) != 0)) {
+            entry.setMode((entry.isDirectory() ? 0040000 : 0100000) | 0755);
+        } else {
+            entry.setMode(0100644);
+        }
+        entry.setModTime(REPRODUCIBLE_TIME);
+        entry.setUserId(0);
+        entry.setGroupId(0);
+        entry.setUserName("");
+        entry.setGroupName("");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // two empty records mark the end of the archive, which is padded to a full block
+            long end = offset + 2L * RECORD_SIZE;
+            long remainder = end % BLOCK_SIZE;
+            if (remainder != 0) {
+                end += BLOCK_SIZE - remainder;
+            }
+            writeZeros(end - offset);
+        } finally {
+            if (channel != null) {
+                channel.close();
+            } else {
+                stream.close();
+            }
+        }
+    }
+
+    private void writeHeader(TarArchiveEntry entry) throws IOException {
+        writeLongName(entry, entry.getName(), TarConstants.LF_GNUTYPE_LONGNAME);
+        if (entry.isSymbolicLink()) {
+            writeLongName(entry, entry.getLinkName(), TarConstants.LF_GNUTYPE_LONGLINK);
+        }
+        Arrays.fill(header, (byte) 0);
+        entry.writeEntryHeader(header, encoding, true);
+        write(header, 0, header.length);
+    }
+
+    /**
+     * Writes a GNU <code>././@LongLink</code> entry for names that don't fit into the header.
+     */
+    private void writeLongName(TarArchiveEntry entry, String name, byte type) throws IOException {
+        ByteBuffer encoded = encoding.encode(name);
+        int length = encoded.limit() - encoded.position();
+        if (length < TarConstants.NAMELEN) {
+            return;
+        }
+        TarArchiveEntry longName = new TarArchiveEntry(TarConstants.GNU_LONGLINK, type);
+        longName.setSize(length + 1L); // NUL terminated
+        longName.setModTime(entry.getModTime());
+        Arrays.fill(header, (byte) 0);
+        longName.writeEntryHeader(header, encoding, true);
+        write(header, 0, header.length);
+        write(encoded.array(), encoded.arrayOffset() + encoded.position(), length);
+        writeZeros(1);
+        pad(length + 1L);
+    }
+
+    private void writeContent(Path path, long size) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = 0;
+            if (channel != null) {
+                while (position < size) {
+                    long transferred = in.transferTo(position, size - position, channel);
+                    if (transferred <= 0) {
+                        throw new IOException(path + " shrank while it was archived");
+                    }
+                    position += transferred;
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, size));
+                while (position < size) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), size - position));
+                    int read = in.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException(path + " shrank while it was archived");
+                    }
+                    stream.write(buffer.array(), 0, read);
+                    position += read;
+                }
+            }
+        }
+        offset += size;
+        pad(size);
+    }
+
+    private void pad(long length) throws IOException {
+        long remainder = length % RECORD_SIZE;
+        if (remainder != 0) {
+            writeZeros(RECORD_SIZE - remainder);
+        }
+    }
+
+    private void writeZeros(long length) throws IOException {
+        byte[] zeros = new byte[RECORD_SIZE];
+        while (length > 0) {
+            int n = (int) Math.min(zeros.length, length);
+            write(zeros, 0, n);
+            length -= n;
+        }
+    }
+
+    private void write(byte[] bytes, int off, int length) throws IOException {
+        if (channel != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, off, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } else {
+            stream.write(bytes, off, length);
+        }
+        offset += length;
+    }
+}
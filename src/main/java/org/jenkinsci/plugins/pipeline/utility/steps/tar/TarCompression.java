@@ -0,0 +1,310 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * The compression codecs that can be applied to a tar file.
+ *
+ * Every codec can recognize its own magic bytes, so {@link #detect(byte[], int)} is the one place
+ * that decides how a tar file should be decompressed.
+ * The xz and zstd libraries are bundled with the plugin and used directly rather than through commons-compress,
+ * which lives in another plugin and can't see them.
+ * zstd needs its native library to load on the agent, see {@link #isAvailable()}.
+ */
+public enum TarCompression {
+    NONE {
+        @Override
+        boolean matches(byte[] signature, int length) {
+            return false;
+        }
+
+        @Override
+        OutputStream compress(OutputStream out, int level, int threads) {
+            return out;
+        }
+
+        @Override
+        InputStream decompress(InputStream in) {
+            return in;
+        }
+    },
+    GZIP {
+        @Override
+        boolean matches(byte[] signature, int length) {
+            return GzipCompressorInputStream.matches(signature, length);
+        }
+
+        @Override
+        OutputStream compress(OutputStream out, int level, int threads) throws IOException {
+            int deflateLevel = deflateLevel(level);
+            if (threads > 1) {
+                return new ParallelGzipOutputStream(out, threads, deflateLevel, ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE);
+            }
+            GzipParameters parameters = new GzipParameters();
+            parameters.setCompressionLevel(deflateLevel);
+            return new GzipCompressorOutputStream(new BufferedOutputStream(out), parameters);
+        }
+
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            // parallel compressed files consist of several members
+            return new GzipCompressorInputStream(in, true);
+        }
+    },
+    BZIP2 {
+        @Override
+        boolean matches(byte[] signature, int length) {
+            return BZip2CompressorInputStream.matches(signature, length);
+        }
+
+        @Override
+        OutputStream compress(OutputStream out, int level, int threads) throws IOException {
+            int blockSize = level < BZip2CompressorOutputStream.MIN_BLOCKSIZE
+                    ? BZip2CompressorOutputStream.MAX_BLOCKSIZE
+                    : Math.min(level, BZip2CompressorOutputStream.MAX_BLOCKSIZE);
+            return new BZip2CompressorOutputStream(new BufferedOutputStream(out), blockSize);
+        }
+
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            return new BZip2CompressorInputStream(in, true);
+        }
+    },
+    XZ {
+        @Override
+        boolean matches(byte[] signature, int length) {
+            return XZUtils.matches(signature, length);
+        }
+
+        @Override
+        OutputStream compress(OutputStream out, int level, int threads) throws IOException {
+            int preset = level < 0 ? LZMA2Options.PRESET_DEFAULT : Math.min(level, LZMA2Options.PRESET_MAX);
+            return new XZOutputStream(new BufferedOutputStream(out), new LZMA2Options(preset));
+        }
+
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            // reads concatenated streams as well
+            return new XZInputStream(in);
+        }
+    },
+    ZSTD {
+        @Override
+        boolean matches(byte[] signature, int length) {
+            return ZstdUtils.matches(signature, length);
+        }
+
+        @Override
+        boolean isAvailable() {
+            try {
+                Native.load();
+                return true;
+            } catch (LinkageError e) {
+                // no native library for this platform
+                return false;
+            }
+        }
+
+        @Override
+        OutputStream compress(OutputStream out, int level, int threads) throws IOException {
+            int zstdLevel = level < 0 ? Zstd.defaultCompressionLevel() : Math.min(level, Zstd.maxCompressionLevel());
+            return new ZstdOutputStream(new BufferedOutputStream(out), zstdLevel);
+        }
+
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+    },
+    LZ4 {
+        @Override
+        boolean matches(byte[] signature, int length) {
+            return FramedLZ4CompressorInputStream.matches(signature, length);
+        }
+
+        @Override
+        OutputStream compress(OutputStream out, int level, int threads) throws IOException {
+            return new FramedLZ4CompressorOutputStream(new BufferedOutputStream(out));
+        }
+
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            return new FramedLZ4CompressorInputStream(in, true);
+        }
+    };
+
+    /**
+     * The number of leading bytes of a file that {@link #detect(byte[], int)} needs to see.
+     */
+    public static final int SIGNATURE_LENGTH = 8;
+
+    /**
+     * If the libraries needed by this codec are present.
+     *
+     * @return true if the codec can be used
+     */
+    boolean isAvailable() {
+        return true;
+    }
+
+    abstract boolean matches(byte[] signature, int length);
+
+    /**
+     * The gzip compression level for a codec specific level.
+     *
+     * @param level the level, or a negative number for the default
+     * @return the level for a {@link Deflater}
+     */
+    static int deflateLevel(int level) {
+        return level < 0 ? Deflater.DEFAULT_COMPRESSION : Math.min(level, Deflater.BEST_COMPRESSION);
+    }
+
+    /**
+     * Wraps the stream in a compressing stream.
+     *
+     * @param out the stream to write the compressed data to
+     * @param level the codec specific compression level, or a negative number for the codec's default
+     * @param threads the number of threads to compress with, if the codec can make use of several
+     * @return the stream to write the tar data to
+     * @throws IOException if the codec fails to initialize
+     */
+    abstract OutputStream compress(OutputStream out, int level, int threads) throws IOException;
+
+    /**
+     * Wraps the stream in a decompressing stream.
+     *
+     * @param in the compressed data
+     * @return the plain tar data
+     * @throws IOException if the data can't be read by this codec
+     */
+    abstract InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * Creates a compressing stream, failing with a clear message if the codec is not available.
+     *
+     * @param out the stream to write the compressed data to
+     * @param level the codec specific compression level, or a negative number for the codec's default
+     * @param threads the number of threads to compress with, if the codec can make use of several
+     * @return the stream to write the tar data to
+     * @throws IOException if the codec is not available or fails to initialize
+     */
+    public OutputStream createOutputStream(@NonNull OutputStream out, int level, int threads) throws IOException {
+        checkAvailable();
+        return compress(out, level, threads);
+    }
+
+    /**
+     * Creates a decompressing stream, failing with a clear message if the codec is not available.
+     *
+     * @param in the compressed data
+     * @return the plain tar data
+     * @throws IOException if the codec is not available or the data can't be read
+     */
+    public InputStream createInputStream(@NonNull InputStream in) throws IOException {
+        checkAvailable();
+        return decompress(in);
+    }
+
+    /**
+     * Fails with a clear message if the libraries needed by this codec are missing.
+     *
+     * @throws IOException if the codec is not available
+     */
+    void checkAvailable() throws IOException {
+        if (!isAvailable()) {
+            throw new IOException(name().toLowerCase(Locale.ENGLISH) + " compression is not available on this agent");
+        }
+    }
+
+    /**
+     * Detects the codec from the first bytes of a file.
+     *
+     * @param signature the first bytes of the file, at least {@link #SIGNATURE_LENGTH} if the file is that large
+     * @param length the number of valid bytes in the signature
+     * @return the detected codec, or {@link #NONE} if it isn't compressed by a known codec
+     */
+    @NonNull
+    public static TarCompression detect(byte[] signature, int length) {
+        for (TarCompression compression : values()) {
+            if (length > 0 && compression.matches(signature, length)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Looks up a codec by its name, ignoring case.
+     *
+     * @param name the name, e.g. <code>zstd</code>
+     * @return the codec or {@code null} if the name is blank
+     * @throws IllegalArgumentException if there is no codec with that name
+     */
+    @CheckForNull
+    public static TarCompression fromName(@CheckForNull String name) {
+        if (StringUtils.isBlank(name)) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase(Locale.ENGLISH);
+        if ("GZ".equals(normalized)) {
+            return GZIP;
+        }
+        for (TarCompression compression : values()) {
+            if (compression.name().equals(normalized)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown compression '" + name + "', expected one of "
+                + Arrays.toString(values()).toLowerCase(Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The sidecar index of a tar file, written by <code>tar index: true</code> to <code>&lt;file&gt;.idx</code>.
+ *
+ * It records where the header of every entry starts in the uncompressed tar stream.
+ * A gzip compressed tar file is written as independent gzip members by {@link ParallelGzipOutputStream},
+ * the index also records where every member starts in the compressed file and in the uncompressed stream,
+ * so that reading can start at the member that contains an entry instead of at the beginning of the file.
+ */
+final class TarIndex {
+    static final String SUFFIX = ".idx";
+    private static final String MAGIC = "pipeline-utility-steps tar index";
+    private static final int VERSION = 2;
+
+    private final TarCompression compression;
+    private final List<String> names = new ArrayList<>();
+    private long[] offsets = new long[64];
+    /**
+     * Pairs of the compressed and uncompressed start of every gzip member.
+     */
+    private long[] members = new long[0];
+    private int memberCount;
+    private long archiveLength;
+    private long archiveModified;
+
+    TarIndex(@NonNull TarCompression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * If the index can be written for a tar file with this compression.
+     *
+     * @param compression the compression
+     * @return true for uncompressed and gzip compressed tar files
+     */
+    static boolean isSupported(@NonNull TarCompression compression) {
+        return compression == TarCompression.NONE || compression == TarCompression.GZIP;
+    }
+
+    /**
+     * @param archive the tar file
+     * @return the path of the index of the tar file
+     */
+    static Path pathOf(@NonNull Path archive) {
+        return archive.resolveSibling(archive.getFileName() + SUFFIX);
+    }
+
+    void addEntry(@NonNull String name, long offset) {
+        if (names.size() == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[names.size()] = offset;
+        names.add(name);
+    }
+
+    void addMember(long compressedOffset, long uncompressedOffset) {
+        if (memberCount * 2 == members.length) {
+            members = Arrays.copyOf(members, Math.max(16, members.length * 2));
+        }
+        members[memberCount * 2] = compressedOffset;
+        members[memberCount * 2 + 1] = uncompressedOffset;
+        memberCount++;
+    }
+
+    /**
+     * Records the length and modification time of the written tar file, to recognize an index of an older tar file.
+     *
+     * @param archive the tar file
+     * @throws IOException if the attributes of the tar file can't be read
+     */
+    void setArchive(@NonNull Path archive) throws IOException {
+        this.archiveLength = Files.size(archive);
+        this.archiveModified = Files.getLastModifiedTime(archive).toMillis();
+    }
+
+    @NonNull
+    TarCompression getCompression() {
+        return compression;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    @NonNull
+    String getName(int i) {
+        return names.get(i);
+    }
+
+    long getOffset(int i) {
+        return offsets[i];
+    }
+
+    /**
+     * Finds where to start reading to get to a position in the uncompressed tar stream.
+     *
+     * @param offset the position in the uncompressed tar stream
+     * @return the position in the file and the position in the uncompressed stream it corresponds to
+     */
+    long[] getCheckpoint(long offset) {
+        int low = 0;
+        int high = memberCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (members[middle * 2 + 1] <= offset) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (found < 0) {
+            return new long[] {0, 0};
+        }
+        return new long[] {members[found * 2], members[found * 2 + 1]};
+    }
+
+    void write(@NonNull Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeUTF(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(compression.name());
+            out.writeLong(archiveLength);
+            out.writeLong(archiveModified);
+            out.writeInt(memberCount);
+            for (int i = 0; i < memberCount * 2; i++) {
+                out.writeLong(members[i]);
+            }
+            out.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                out.writeUTF(names.get(i));
+                out.writeLong(offsets[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads the index of a tar file.
+     *
+     * @param archive the tar file
+     * @return the index, or null if there is none, it is damaged or it was not written for the tar file as it is now
+     * @throws IOException if the index can't be read
+     */
+    @CheckForNull
+    static TarIndex readFor(@NonNull Path archive) throws IOException {
+        Path path = pathOf(archive);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        long indexLength = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (!MAGIC.equals(in.readUTF()) || in.readInt() != VERSION) {
+                return null;
+            }
+            TarIndex index = new TarIndex(TarCompression.valueOf(in.readUTF()));
+            index.archiveLength = in.readLong();
+            index.archiveModified = in.readLong();
+            if (index.archiveLength != Files.size(archive)
+                    || index.archiveModified != Files.getLastModifiedTime(archive).toMillis()) {
+                return null;
+            }
+            // every member takes 16 bytes and every entry at least 10, larger counts can't be right
+            int memberCount = in.readInt();
+            if (memberCount < 0 || memberCount > indexLength / 16) {
+                return null;
+            }
+            index.members = new long[memberCount * 2];
+            for (int i = 0; i < memberCount * 2; i++) {
+                index.members[i] = in.readLong();
+                if (index.members[i] < 0 || i >= 2 && index.members[i] < index.members[i - 2]) {
+                    return null;
+                }
+            }
+            index.memberCount = memberCount;
+            int entryCount = in.readInt();
+            if (entryCount < 0 || entryCount > indexLength / 10) {
+                return null;
+            }
+            index.offsets = new long[Math.max(1, entryCount)];
+            for (int i = 0; i < entryCount; i++) {
+                String name = in.readUTF();
+                long offset = in.readLong();
+                if (offset < 0) {
+                    return null;
+                }
+                index.addEntry(name, offset);
+            }
+            return index;
+        } catch (EOFException | UTFDataFormatException | IllegalArgumentException e) {
+            // a damaged index, the tar file can still be read without it
+            return null;
+        }
+    }
+}
@@ -24,6 +24,7 @@
 package org.jenkinsci.plugins.pipeline.utility.steps.tar;
 
 import com.google.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.model.Descriptor;
@@ -45,6 +46,9 @@ import java.util.Set;
  */
 public class TarStep extends AbstractFileCompressStep {
     private boolean compress = true;
+    private String compression;
+    private int compressionThreads = 1;
+    private boolean index = false;
 
     @DataBoundConstructor
     public TarStep(String file) throws Descriptor.FormException {
@@ -56,6 +60,7 @@ public class TarStep extends AbstractFileCompressStep {
 
     /**
      * If the tar file should be compressed with gzip.
+     * Only used when no {@link #getCompression()} is set.
      *
      * @return if tar should be compressed with gzip
      */
@@ -73,6 +78,93 @@ public class TarStep extends AbstractFileCompressStep {
         this.compress = compress;
     }
 
+    /**
+     * The compression codec to use, one of <code>none</code>, <code>gzip</code>, <code>bzip2</code>,
+     * <code>xz</code>, <code>zstd</code> or <code>lz4</code>.
+     * When not set {@link #isCompress()} decides between gzip and no compression.
+     *
+     * @return the name of the codec or null
+     */
+    public String getCompression() {
+        return compression;
+    }
+
+    /**
+     * The compression codec to use, one of <code>none</code>, <code>gzip</code>, <code>bzip2</code>,
+     * <code>xz</code>, <code>zstd</code> or <code>lz4</code>.
+     * When not set {@link #isCompress()} decides between gzip and no compression.
+     *
+     * @param compression the name of the codec
+     */
+    @DataBoundSetter
+    public void setCompression(String compression) {
+        this.compression = TarCompression.fromName(compression) == null ? null : compression.trim();
+    }
+
+    /**
+     * The codec that the tar file will be compressed with.
+     *
+     * @return the codec, from {@link #isStore()}, {@link #getCompression()} or {@link #isCompress()}
+     */
+    @NonNull
+    public TarCompression getCompressionCodec() {
+        if (isStore() || getLevel() == 0) {
+            return TarCompression.NONE;
+        }
+        TarCompression codec = TarCompression.fromName(compression);
+        if (codec != null) {
+            return codec;
+        }
+        return compress ? TarCompression.GZIP : TarCompression.NONE;
+    }
+
+    /**
+     * The number of threads to gzip the tar file with on the agent.
+     * With more than one thread the tar stream is split into blocks that are compressed independently
+     * and written as a multi-member gzip file.
+     *
+     * @return the number of compression threads
+     */
+    public int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    /**
+     * The number of threads to gzip the tar file with on the agent.
+     * With more than one thread the tar stream is split into blocks that are compressed independently
+     * and written as a multi-member gzip file.
+     *
+     * @param compressionThreads the number of compression threads
+     */
+    @DataBoundSetter
+    public void setCompressionThreads(int compressionThreads) {
+        this.compressionThreads = Math.max(1, compressionThreads);
+    }
+
+    /**
+     * Write an index of the entries next to the tar file, as <code>&lt;file&gt;.idx</code>,
+     * that lets {@link UnTarStep#isIndex()} read the entries it extracts without going through the whole file.
+     * Only uncompressed and gzip compressed tar files can be indexed,
+     * the gzip compressed ones are written as a multi-member gzip file with a member every megabyte.
+     *
+     * @return if an index should be written
+     */
+    public boolean isIndex() {
+        return index;
+    }
+
+    /**
+     * Write an index of the entries next to the tar file, as <code>&lt;file&gt;.idx</code>,
+     * that lets {@link UnTarStep#isIndex()} read the entries it extracts without going through the whole file.
+     * Only uncompressed and gzip compressed tar files can be indexed,
+     * the gzip compressed ones are written as a multi-member gzip file with a member every megabyte.
+     *
+     * @param index if an index should be written
+     */
+    @DataBoundSetter
+    public void setIndex(boolean index) {
+        this.index = index;
+    }
 
     @Override
     public StepExecution start(StepContext context) throws Exception {
@@ -25,22 +25,22 @@
 package org.jenkinsci.plugins.pipeline.utility.steps.tar;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
-import hudson.Util;
 import hudson.remoting.VirtualChannel;
-import hudson.util.io.Archiver;
-import hudson.util.io.ArchiverFactory;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tools.ant.DirectoryScanner;
-import org.apache.tools.ant.types.FileSet;
 import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
 import org.jenkinsci.plugins.pipeline.utility.steps.CompressStepExecution;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Execution of {@link TarStep}.
@@ -59,7 +59,13 @@ public class TarStepExecution extends CompressStepExecution {
 
     @Override
     protected Void run() throws Exception {
-        setCallable(new TarItFileCallable(step.getGlob(), step.getExclude(), step.isCompress(), step.isOverwrite(), step.isDefaultExcludes()));
+        if (step.isIndex() && !TarIndex.isSupported(step.getCompressionCodec())) {
+            throw new IOException("An index can only be written for uncompressed or gzip compressed tar files.");
+        }
+        TarItFileCallable callable = new TarItFileCallable(step.getGlob(), step.getExclude(), step.getCompressionCodec(), step.getLevel(), step.isOverwrite(), step.isDefaultExcludes(), step.getCompressionThreads(), step.isReproducible(),
+                step.getScanThreads());
+        callable.setIndex(step.isIndex());
+        setCallable(callable);
         return super.run();
     }
 
@@ -69,39 +75,80 @@ public class TarStepExecution extends CompressStepExecution {
     static class TarItFileCallable extends AbstractFileCallable<Integer> {
         final String glob;
         final String exclude;
-        final boolean compress;
+        final TarCompression compression;
+        final int level;
         final boolean overwrite;
 
         final boolean defaultExcludes;
-        public TarItFileCallable(String glob, String exclude, boolean compress, boolean overwrite, boolean defaultExcludes) {
+        final int compressionThreads;
+        final boolean reproducible;
+        final int scanThreads;
+        boolean index;
+
+        public TarItFileCallable(String glob, String exclude, TarCompression compression, int level, boolean overwrite, boolean defaultExcludes, int compressionThreads,
+                                 boolean reproducible, int scanThreads) {
             this.glob = StringUtils.isBlank(glob) ? "**/*" : glob;
             this.exclude = exclude;
-            this.compress = compress;
+            this.compression = compression;
+            this.level = level;
             this.overwrite = overwrite;
             this.defaultExcludes =  defaultExcludes;
+            this.compressionThreads = compressionThreads;
+            this.reproducible = reproducible;
+            this.scanThreads = scanThreads;
+        }
+
+        /**
+         * @param index if a {@link TarIndex} should be written next to the tar file, when it is written to the workspace
+         */
+        void setIndex(boolean index) {
+            this.index = index;
         }
 
         @Override
         public Integer invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
-            Path p = Paths.get(getDestination().getRemote());
-            if (overwrite && Files.exists(p)) {
-                Files.delete(p); //Will throw exception if it fails to delete it
+            compression.checkAvailable();
+            List<Path> targets = new ArrayList<>(getLocalDestinations());
+            for (Path target : targets) {
+                if (overwrite && Files.exists(target)) {
+                    Files.delete(target); //Will throw exception if it fails to delete it
+                }
+            }
+            // the index belongs to the tar file in the workspace, there is nothing to index when it is only streamed
+            TarIndex tarIndex = index && !targets.isEmpty() ? new TarIndex(compression) : null;
+            if (tarIndex != null) {
+                Path indexPath = TarIndex.pathOf(targets.get(0));
+                Files.deleteIfExists(indexPath);
+                targets.add(indexPath);
             }
 
-            Archiver archiver = (compress ? ArchiverFactory.TARGZ : ArchiverFactory.TAR).create(getDestination().write());
-            FileSet fileSet = Util.createFileSet(dir, glob, exclude);
-            fileSet.setDefaultexcludes(defaultExcludes);
-            DirectoryScanner scanner = fileSet.getDirectoryScanner(new org.apache.tools.ant.Project());
+            TarArchiveWriter archiver;
+            if (tarIndex != null && compression == TarCompression.GZIP) {
+                // the independent gzip members are the points the index can start reading at
+                ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(writeDestination(), compressionThreads,
+                        TarCompression.deflateLevel(level), ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE);
+                gzip.setIndex(tarIndex);
+                archiver = new TarArchiveWriter(gzip);
+            } else if (compression == TarCompression.NONE && getSink() == null) {
+                // uncompressed, copy the files straight into the tar file
+                Path p = Paths.get(getDestination().getRemote());
+                Files.createDirectories(p.toAbsolutePath().getParent());
+                archiver = new TarArchiveWriter(FileChannel.open(p,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+            } else {
+                archiver = new TarArchiveWriter(compression.createOutputStream(writeDestination(), level, compressionThreads));
+            }
+            archiver.setReproducible(reproducible);
+            archiver.setIndex(tarIndex);
             try {
-                for (String path : scanner.getIncludedFiles()) {
-                    File toArchive = new File(dir, path).getCanonicalFile();
-                    if (!Files.isSameFile(toArchive.toPath(), p)) {
-                        archiver.visit(toArchive, path);
-                    }
-                }
+                archiveFiles(dir, new GlobMatcher(glob, exclude, defaultExcludes), scanThreads, reproducible, archiver, targets);
             } finally {
                 archiver.close();
             }
+            if (tarIndex != null) {
+                tarIndex.setArchive(targets.get(0));
+                tarIndex.write(targets.get(1));
+            }
             return archiver.countEntries();
         }
     }
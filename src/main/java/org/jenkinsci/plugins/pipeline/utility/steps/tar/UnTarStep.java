@@ -49,6 +49,10 @@ import java.util.Set;
 public class UnTarStep extends AbstractFileDecompressStep {
 
     private boolean keepPermissions = true;
+    private boolean keepTimestamps = false;
+    private boolean keepLinks = false;
+    private int extractMemoryLimit = PipelinedEntryWriter.DEFAULT_MEMORY_LIMIT;
+    private boolean index = false;
 
     @DataBoundConstructor
     public UnTarStep(String file) throws Descriptor.FormException {
@@ -77,6 +81,92 @@ public class UnTarStep extends AbstractFileDecompressStep {
         this.keepPermissions = keepPermissions;
     }
 
+    /**
+     * Extract the modification times of the files and directories.
+     *
+     * @return if modification times should be extracted
+     */
+    public boolean isKeepTimestamps() {
+        return keepTimestamps;
+    }
+
+    /**
+     * Extract the modification times of the files and directories.
+     *
+     * @param keepTimestamps if modification times should be extracted
+     */
+    @DataBoundSetter
+    public void setKeepTimestamps(boolean keepTimestamps) {
+        this.keepTimestamps = keepTimestamps;
+    }
+
+    /**
+     * Extract symbolic and hard links as links.
+     * The links are created after all files are written and must stay inside the destination directory.
+     * When not set link entries are skipped.
+     *
+     * @return if links should be extracted
+     */
+    public boolean isKeepLinks() {
+        return keepLinks;
+    }
+
+    /**
+     * Extract symbolic and hard links as links.
+     * The links are created after all files are written and must stay inside the destination directory.
+     * When not set link entries are skipped.
+     *
+     * @param keepLinks if links should be extracted
+     */
+    @DataBoundSetter
+    public void setKeepLinks(boolean keepLinks) {
+        this.keepLinks = keepLinks;
+    }
+
+    /**
+     * The maximum amount of memory in MiB used to buffer files for the extraction threads.
+     * Only used when {@link #getExtractThreads()} is more than one.
+     *
+     * @return the memory limit in MiB
+     */
+    public int getExtractMemoryLimit() {
+        return extractMemoryLimit;
+    }
+
+    /**
+     * The maximum amount of memory in MiB used to buffer files for the extraction threads.
+     * Only used when {@link #getExtractThreads()} is more than one.
+     *
+     * @param extractMemoryLimit the memory limit in MiB
+     */
+    @DataBoundSetter
+    public void setExtractMemoryLimit(int extractMemoryLimit) {
+        this.extractMemoryLimit = Math.max(1, extractMemoryLimit);
+    }
+
+    /**
+     * Use the index written by {@link TarStep#isIndex()} next to the tar file to read only the entries
+     * that match {@link #getGlob()} and {@link #getExclude()}, instead of reading through the whole file.
+     * Without an index, or when most of the entries match, the whole file is read as usual.
+     *
+     * @return if the index should be used
+     */
+    public boolean isIndex() {
+        return index;
+    }
+
+    /**
+     * Use the index written by {@link TarStep#isIndex()} next to the tar file to read only the entries
+     * that match {@link #getGlob()} and {@link #getExclude()}, instead of reading through the whole file.
+     * Without an index, or when most of the entries match, the whole file is read as usual.
+     *
+     * @param index if the index should be used
+     */
+    @DataBoundSetter
+    public void setIndex(boolean index) {
+        this.index = index;
+    }
+
     @Override
     public StepExecution start(StepContext context) throws Exception {
         return new UnTarStepExecution(this, context);
@@ -30,22 +30,27 @@ import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tools.ant.types.selectors.SelectorUtils;
 import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
 import org.jenkinsci.plugins.pipeline.utility.steps.DecompressStepExecution;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
+import org.jenkinsci.plugins.pipeline.utility.steps.LocalDestination;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * The execution of a {@link UnTarStep}.
@@ -70,7 +75,12 @@ public class UnTarStepExecution extends DecompressStepExecution {
         if (step.isTest()) {
             setCallable(new TestTarFileCallable(listener));
         } else {
-            setCallable(new UnTarFileCallable(listener, step.getGlob(), step.isQuiet(), step.isKeepPermissions()));
+            UnTarFileCallable callable = new UnTarFileCallable(listener, step.getGlob(), step.getExclude(), step.isQuiet(),
+                    step.isKeepPermissions(), step.getExtractThreads(), step.getExtractMemoryLimit());
+            callable.setIndex(step.isIndex());
+            callable.setKeepTimestamps(step.isKeepTimestamps());
+            callable.setKeepLinks(step.isKeepLinks());
+            setCallable(callable);
         }
         return super.run();
     }
@@ -81,32 +91,78 @@ public class UnTarStepExecution extends DecompressStepExecution {
     public static class UnTarFileCallable extends AbstractFileCallable<Void> {
         private final TaskListener listener;
         private final String glob;
+        private final String exclude;
         private final boolean quiet;
         private final boolean keepPermissions;
+        private final int extractThreads;
+        private final int extractMemoryLimit;
+        private boolean index;
+        private boolean keepTimestamps;
+        private boolean keepLinks;
 
         public UnTarFileCallable(TaskListener listener, String glob, boolean quiet, boolean keepPermissions) {
+            this(listener, glob, quiet, keepPermissions, 1, PipelinedEntryWriter.DEFAULT_MEMORY_LIMIT);
+        }
+
+        public UnTarFileCallable(TaskListener listener, String glob, boolean quiet, boolean keepPermissions,
+                                 int extractThreads, int extractMemoryLimit) {
+            this(listener, glob, null, quiet, keepPermissions, extractThreads, extractMemoryLimit);
+        }
+
+        public UnTarFileCallable(TaskListener listener, String glob, String exclude, boolean quiet, boolean keepPermissions,
+                                 int extractThreads, int extractMemoryLimit) {
             this.listener = listener;
             this.glob = glob;
+            this.exclude = exclude;
             this.quiet = quiet;
             this.keepPermissions = keepPermissions;
+            this.extractThreads = extractThreads;
+            this.extractMemoryLimit = extractMemoryLimit;
+        }
+
+        /**
+         * @param index if the {@link TarIndex} next to the tar file should be used to read only the matching entries
+         */
+        public void setIndex(boolean index) {
+            this.index = index;
+        }
+
+        /**
+         * @param keepTimestamps if the modification times of the entries should be restored
+         */
+        public void setKeepTimestamps(boolean keepTimestamps) {
+            this.keepTimestamps = keepTimestamps;
+        }
+
+        /**
+         * @param keepLinks if symbolic and hard link entries should be extracted as links, instead of being skipped
+         */
+        public void setKeepLinks(boolean keepLinks) {
+            this.keepLinks = keepLinks;
         }
 
         @Override
         public Void invoke(File tarFile, VirtualChannel channel) throws IOException, InterruptedException {
             PrintStream logger = listener.getLogger();
-            boolean doGlob = !StringUtils.isBlank(glob);
+            GlobMatcher matcher = StringUtils.isBlank(glob) && StringUtils.isBlank(exclude)
+                    ? null : GlobMatcher.of(glob, exclude, false);
+            if (index && matcher != null && extractIndexed(tarFile, matcher, logger)) {
+                return null;
+            }
 
             FileInputStream fileStream = new FileInputStream(tarFile);
 
             FileChannel fileChannel = fileStream.getChannel();
 
-            byte[] signature = new byte[2];
+            byte[] signature = new byte[TarCompression.SIGNATURE_LENGTH];
+            TarCompression compression;
             try {
-                int read = fileStream.read(signature);
+                int read = IOUtils.read(fileStream, signature);
                 fileChannel.position(0);
                 if (read <= 0) {
                     logger.println("File is empty.");
                 }
+                compression = TarCompression.detect(signature, read);
             } catch (IOException exception) {
                 fileStream.close();
                 throw new IOException("Error reading tar/tgz file: " + exception.getMessage(), exception);
@@ -115,49 +171,38 @@ public class UnTarStepExecution extends DecompressStepExecution {
             }
 
             InputStream inputStream = fileStream;
-            if(GzipCompressorInputStream.matches(signature, signature.length)) {
+            if (compression != TarCompression.NONE) {
+                compression.checkAvailable();
                 try {
-                    //check if matches standard gzip magic number
-                    inputStream = new GzipCompressorInputStream(fileStream);
+                    inputStream = compression.createInputStream(fileStream);
                 } catch (IOException exception) {
                     // Eat exception, may be not compressed file
+                    fileChannel.position(0);
                 }
             }
 
-            getDestination().mkdirs();
-            try (TarArchiveInputStream tarStream = new TarArchiveInputStream(inputStream)) {
+            LocalDestination destination = getLocalDestination();
+            destination.createDirectories(destination.getBase());
+            try (TarArchiveInputStream tarStream = new TarArchiveInputStream(inputStream);
+                 PipelinedEntryWriter writer = extractThreads > 1
+                         ? new PipelinedEntryWriter(destination, extractThreads, extractMemoryLimit * 1024L * 1024L)
+                         : null) {
                 logger.println("Extracting from " + tarFile.getAbsolutePath());
+                DeferredAttributes attributes = new DeferredAttributes(keepPermissions, keepTimestamps);
                 TarArchiveEntry entry;
                 Integer fileCount = 0;
                 while ((entry = tarStream.getNextTarEntry()) != null) {
-                    if (doGlob && !matches(entry.getName(), glob)) {
+                    if (matcher != null && !matcher.matches(entry.getName())) {
                         continue;
                     }
-
-                    FilePath f = getDestination().child(entry.getName());
-                    if (!isDescendantOfDestination(f)) {
-                        throw new FileNotFoundException(f.getRemote() + " is out of bounds!");
-                    }
-                    if (entry.isDirectory()) {
-                        f.mkdirs();
-                    } else {
+                    if (extract(tarStream, entry, destination, writer, attributes, logger)) {
                         fileCount++;
-                        if (!quiet) {
-                            logger.printf("Extracting: %s -> %s%n", entry.getName(), f.getRemote());
-                        }
-
-                        if (entry.isCheckSumOK()) {
-                            OutputStream outputStream = f.write();
-                            IOUtils.copy(tarStream, outputStream);
-                            outputStream.close();
-                        } else {
-                            throw new IOException("Not a tar archive");
-                        }
-                    }
-                    if (keepPermissions) {
-                        f.chmod(entry.getMode());
                     }
                 }
+                if (writer != null) {
+                    writer.finish();
+                }
+                attributes.apply(destination);
                 logger.printf("Extracted: %d files%n", fileCount);
             }
             finally {
@@ -166,10 +211,126 @@ public class UnTarStepExecution extends DecompressStepExecution {
             return null;
         }
 
-        boolean matches(String path, String glob) {
-            String safeGlob = glob.replace('/', File.separatorChar);
-            String safePath = path.replace('/', File.separatorChar);
-            return SelectorUtils.matchPath(safeGlob, safePath);
+        /**
+         * Extracts the matching entries by reading them at the offsets recorded in the index,
+         * instead of reading the whole tar file.
+         *
+         * @return false if the tar file has no usable index, the index doesn't match the tar file
+         * or too many entries match for it to help
+         */
+        private boolean extractIndexed(File tarFile, GlobMatcher matcher, PrintStream logger) throws IOException, InterruptedException {
+            TarIndex tarIndex = TarIndex.readFor(tarFile.toPath());
+            if (tarIndex == null) {
+                logger.println("No index for " + tarFile.getAbsolutePath() + ", reading the whole file.");
+                return false;
+            }
+            List<Integer> selected = new ArrayList<>();
+            for (int i = 0; i < tarIndex.size(); i++) {
+                if (matcher.matches(tarIndex.getName(i))) {
+                    selected.add(i);
+                }
+            }
+            if (selected.size() > tarIndex.size() / 2) {
+                // seeking to most of the entries is slower than reading through them
+                return false;
+            }
+
+            LocalDestination destination = getLocalDestination();
+            destination.createDirectories(destination.getBase());
+            try (PipelinedEntryWriter writer = extractThreads > 1
+                    ? new PipelinedEntryWriter(destination, extractThreads, extractMemoryLimit * 1024L * 1024L)
+                    : null) {
+                logger.println("Extracting from " + tarFile.getAbsolutePath() + " using its index");
+                DeferredAttributes attributes = new DeferredAttributes(keepPermissions, keepTimestamps);
+                int fileCount = 0;
+                for (int i : selected) {
+                    long offset = tarIndex.getOffset(i);
+                    long[] checkpoint = tarIndex.getCheckpoint(offset);
+                    try (FileInputStream fileStream = new FileInputStream(tarFile)) {
+                        TarArchiveInputStream tarStream;
+                        TarArchiveEntry entry;
+                        try {
+                            fileStream.getChannel().position(checkpoint[0]);
+                            InputStream inputStream = tarIndex.getCompression().createInputStream(new BufferedInputStream(fileStream));
+                            IOUtils.skipFully(inputStream, offset - checkpoint[1]);
+                            tarStream = new TarArchiveInputStream(inputStream);
+                            entry = tarStream.getNextTarEntry();
+                        } catch (IOException e) {
+                            // the offsets point into the wrong place of the file
+                            tarStream = null;
+                            entry = null;
+                        }
+                        if (entry == null || !entry.getName().equals(tarIndex.getName(i)) || !entry.isCheckSumOK()) {
+                            // the whole file is read next, which writes the files extracted so far again
+                            if (writer != null) {
+                                writer.finish();
+                            }
+                            logger.println("The index does not match " + tarFile.getAbsolutePath() + ", reading the whole file.");
+                            return false;
+                        }
+                        if (extract(tarStream, entry, destination, writer, attributes, logger)) {
+                            fileCount++;
+                        }
+                    }
+                }
+                if (writer != null) {
+                    writer.finish();
+                }
+                attributes.apply(destination);
+                logger.printf("Extracted: %d files%n", fileCount);
+            } finally {
+                logger.flush();
+            }
+            return true;
+        }
+
+        /**
+         * Extracts the entry the stream is positioned at.
+         * Links, permissions and modification times are only recorded in the attributes, to be applied at the end.
+         *
+         * @return true if the entry is a file
+         */
+        private boolean extract(TarArchiveInputStream tarStream, TarArchiveEntry entry, LocalDestination destination,
+                                PipelinedEntryWriter writer, DeferredAttributes attributes, PrintStream logger)
+                throws IOException, InterruptedException {
+            Path f = destination.resolve(entry.getName());
+            if (entry.isDirectory()) {
+                destination.createDirectories(f);
+                attributes.addDirectory(f, entry.getMode(), entry.getModTime().getTime());
+                return false;
+            }
+            if (!entry.isCheckSumOK()) {
+                throw new IOException("Not a tar archive");
+            }
+            if (entry.isSymbolicLink() || entry.isLink()) {
+                if (!keepLinks) {
+                    if (!quiet) {
+                        logger.printf("Skipping link: %s -> %s%n", entry.getName(), entry.getLinkName());
+                    }
+                    return false;
+                }
+                if (!quiet) {
+                    logger.printf("Linking: %s -> %s%n", entry.getName(), entry.getLinkName());
+                }
+                if (entry.isSymbolicLink()) {
+                    attributes.addSymbolicLink(f, entry.getLinkName());
+                } else {
+                    attributes.addLink(f, entry.getLinkName());
+                }
+                return false;
+            }
+            if (!quiet) {
+                logger.printf("Extracting: %s -> %s%n", entry.getName(), f);
+            }
+            if (writer != null) {
+                writer.write(tarStream, entry.isSparse() ? -1 : entry.getSize(), f);
+            } else {
+                try (OutputStream outputStream = destination.newOutputStream(f)) {
+                    IOUtils.copy(tarStream, outputStream);
+                }
+            }
+            attributes.addFile(f, entry.getMode(), entry.getModTime().getTime());
+            return true;
         }
     }
 
@@ -191,10 +352,12 @@ public class UnTarStepExecution extends DecompressStepExecution {
             FileChannel fileChannel = fileStream.getChannel();
             logger.printf("Checking %d bytes in %s%n", f.length(), f.getAbsolutePath());
 
-            byte[] signature = new byte[2];
+            byte[] signature = new byte[TarCompression.SIGNATURE_LENGTH];
+            TarCompression compression;
             try {
-                fileStream.read(signature);
+                int read = IOUtils.read(fileStream, signature);
                 fileChannel.position(0);
+                compression = TarCompression.detect(signature, read);
             } catch (IOException exception) {
                 fileStream.close();
                 listener.error("Error validating tar/tgz file: " + exception.getMessage());
@@ -203,26 +366,22 @@ public class UnTarStepExecution extends DecompressStepExecution {
                 logger.flush();
             }
 
+            String codec = compression.name().toLowerCase(Locale.ENGLISH);
             InputStream inputStream = fileStream;
-            if(GzipCompressorInputStream.matches(signature, signature.length)) {
+            if (compression != TarCompression.NONE) {
                 try {
-                    inputStream = new GzipCompressorInputStream(inputStream);
-                    int nRead = -1;
-                    do {
-                        byte[] buffer = new byte[4096];
-                        nRead = inputStream.read(buffer);
-                    } while (nRead >= 0);
-                    fileChannel.position(0);
+                    inputStream = new CodecInputStream(compression.createInputStream(fileStream));
                 } catch (IOException exception) {
-                    inputStream.close();
-                    listener.error("Error validating tgz file: " + exception.getMessage());
-                    return false;
-                } finally {
+                    fileStream.close();
+                    listener.error("Error validating " + codec + " compressed tar file: " + exception.getMessage());
                     logger.flush();
+                    return false;
                 }
             }
 
-            try (TarArchiveInputStream tarStream = new TarArchiveInputStream(inputStream)) {
+            // the tar headers are walked on the decompressed data while it is read, so the file is only decompressed once
+            try (InputStream in = inputStream;
+                 TarArchiveInputStream tarStream = new TarArchiveInputStream(in)) {
                 TarArchiveEntry entry;
                 while ((entry = tarStream.getNextTarEntry()) != null) {
                     if (!entry.isCheckSumOK()) {
@@ -237,6 +396,13 @@ public class UnTarStepExecution extends DecompressStepExecution {
                         }
                     }
                 }
+                // read the padding after the tar's end and the trailers of the compressed data, e.g. the gzip CRC
+                if (compression != TarCompression.NONE) {
+                    IOUtils.consume(in);
+                }
+            } catch (CodecException exception) {
+                listener.error("Error validating " + codec + " compressed tar file: " + exception.getMessage());
+                return false;
             } catch (IOException exception) {
                 listener.error("Error validating tar file: " + exception.getMessage());
                 return false;
@@ -246,4 +412,48 @@ public class UnTarStepExecution extends DecompressStepExecution {
             return true;
         }
     }
+
+    /**
+     * Tells the errors of the decompression apart from the errors in the tar data read from it.
+     */
+    private static class CodecInputStream extends FilterInputStream {
+        CodecInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                throw new CodecException(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                throw new CodecException(e);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            try {
+                return super.skip(n);
+            } catch (IOException e) {
+                throw new CodecException(e);
+            }
+        }
+    }
+
+    private static class CodecException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CodecException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
 }
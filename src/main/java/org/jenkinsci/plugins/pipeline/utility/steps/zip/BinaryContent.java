@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.zip;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * What <code>unzip read: true</code> does with entries that are not text.
+ *
+ * An entry is considered binary if its first {@link #SNIFF_LENGTH} bytes contain a NUL byte, the same heuristic git uses.
+ */
+public enum BinaryContent {
+    /**
+     * Decode binary entries with the charset like any other entry.
+     */
+    TEXT,
+    /**
+     * Return binary entries encoded as Base64.
+     */
+    BASE64,
+    /**
+     * Leave binary entries out of the result.
+     */
+    SKIP;
+
+    /**
+     * How many leading bytes of an entry are looked at to decide if it is binary.
+     */
+    static final int SNIFF_LENGTH = 8000;
+
+    /**
+     * If the content looks like binary data.
+     *
+     * @param data the content
+     * @param length the number of valid bytes in the content
+     * @return true if there is a NUL byte in the first {@link #SNIFF_LENGTH} bytes
+     */
+    static boolean isBinary(byte[] data, int length) {
+        int end = Math.min(length, SNIFF_LENGTH);
+        for (int i = 0; i < end; i++) {
+            if (data[i] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Turns the content of an entry into the string that is returned to the pipeline.
+     *
+     * @param data the buffer holding the content
+     * @param offset where the content starts in the buffer
+     * @param length the length of the content
+     * @param base64 if the content should be Base64 encoded instead of decoded
+     * @param charset the charset to decode text with
+     * @return the string
+     */
+    static String toString(byte[] data, int offset, int length, boolean base64, Charset charset) {
+        if (base64) {
+            return Base64.getEncoder().encodeToString(Arrays.copyOfRange(data, offset, offset + length));
+        }
+        return new String(data, offset, length, charset);
+    }
+
+    /**
+     * Looks up a mode by its name, ignoring case.
+     *
+     * @param name the name, e.g. <code>base64</code>
+     * @return the mode or {@code null} if the name is blank
+     * @throws IllegalArgumentException if there is no mode with that name
+     */
+    @CheckForNull
+    public static BinaryContent fromName(@CheckForNull String name) {
+        if (StringUtils.isBlank(name)) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase(Locale.ENGLISH);
+        for (BinaryContent mode : values()) {
+            if (mode.name().equals(normalized)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown binary content mode '" + name + "', expected one of "
+                + Arrays.toString(values()).toLowerCase(Locale.ENGLISH));
+    }
+}
@@ -48,8 +48,19 @@ import java.util.Set;
  */
 public class UnZipStep extends AbstractFileDecompressStep {
 
+    /**
+     * The default of {@link #getReadTotalLimit()}, so that reading a large zip file can't exhaust the controller's memory.
+     */
+    public static final long DEFAULT_READ_TOTAL_LIMIT = 64L * 1024 * 1024;
+
     private String charset;
     private boolean read = false;
+    private boolean list = false;
+    private long readLimit = 0;
+    private long readTotalLimit = DEFAULT_READ_TOTAL_LIMIT;
+    private boolean truncate = false;
+    private String binary;
+    private boolean report = false;
 
     @DataBoundConstructor
     public UnZipStep(String zipFile) throws Descriptor.FormException {
@@ -90,6 +101,145 @@ public class UnZipStep extends AbstractFileDecompressStep {
         this.read = read;
     }
 
+    /**
+     * The maximum number of bytes to read from a single file when {@link #isRead()} is enabled,
+     * <code>0</code> for no limit.
+     *
+     * @return the limit in bytes
+     */
+    public long getReadLimit() {
+        return readLimit;
+    }
+
+    /**
+     * The maximum number of bytes to read from a single file when {@link #isRead()} is enabled,
+     * <code>0</code> for no limit.
+     *
+     * @param readLimit the limit in bytes
+     */
+    @DataBoundSetter
+    public void setReadLimit(long readLimit) {
+        this.readLimit = Math.max(0, readLimit);
+    }
+
+    /**
+     * The maximum number of bytes to read from all files together when {@link #isRead()} is enabled,
+     * <code>0</code> for no limit. Defaults to {@link #DEFAULT_READ_TOTAL_LIMIT}.
+     *
+     * @return the limit in bytes
+     */
+    public long getReadTotalLimit() {
+        return readTotalLimit;
+    }
+
+    /**
+     * The maximum number of bytes to read from all files together when {@link #isRead()} is enabled,
+     * <code>0</code> for no limit. Defaults to {@link #DEFAULT_READ_TOTAL_LIMIT}.
+     *
+     * @param readTotalLimit the limit in bytes
+     */
+    @DataBoundSetter
+    public void setReadTotalLimit(long readTotalLimit) {
+        this.readTotalLimit = Math.max(0, readTotalLimit);
+    }
+
+    /**
+     * Truncate the content that exceeds {@link #getReadLimit()} or {@link #getReadTotalLimit()}
+     * instead of failing the step.
+     *
+     * @return if content over the limits should be truncated
+     */
+    public boolean isTruncate() {
+        return truncate;
+    }
+
+    /**
+     * Truncate the content that exceeds {@link #getReadLimit()} or {@link #getReadTotalLimit()}
+     * instead of failing the step.
+     *
+     * @param truncate if content over the limits should be truncated
+     */
+    @DataBoundSetter
+    public void setTruncate(boolean truncate) {
+        this.truncate = truncate;
+    }
+
+    /**
+     * What to do with binary files when {@link #isRead()} is enabled,
+     * one of <code>text</code>, <code>base64</code> or <code>skip</code>.
+     * Defaults to <code>text</code>.
+     *
+     * @return the name of the mode
+     */
+    public String getBinary() {
+        return binary;
+    }
+
+    /**
+     * What to do with binary files when {@link #isRead()} is enabled,
+     * one of <code>text</code>, <code>base64</code> or <code>skip</code>.
+     * Defaults to <code>text</code>.
+     *
+     * @param binary the name of the mode
+     */
+    @DataBoundSetter
+    public void setBinary(String binary) {
+        this.binary = BinaryContent.fromName(binary) == null ? null : binary.trim();
+    }
+
+    /**
+     * @return the mode from {@link #getBinary()}
+     */
+    @NonNull
+    public BinaryContent getBinaryContent() {
+        BinaryContent mode = BinaryContent.fromName(binary);
+        return mode == null ? BinaryContent.TEXT : mode;
+    }
+
+    /**
+     * Return a {@link ZipTestReport} instead of <code>true</code> or <code>false</code> when {@link #isTest()} is enabled.
+     *
+     * @return if a report should be returned
+     */
+    public boolean isReport() {
+        return report;
+    }
+
+    /**
+     * Return a {@link ZipTestReport} instead of <code>true</code> or <code>false</code> when {@link #isTest()} is enabled.
+     *
+     * @param report if a report should be returned
+     */
+    @DataBoundSetter
+    public void setReport(boolean report) {
+        this.report = report;
+    }
+
+    /**
+     * List the entries from the central directory of the zip file instead of extracting them.
+     * Nothing is inflated, the step returns the name, size, compressed size, CRC and time of every matching entry.
+     * <em>E.g.</em>
+     * <code>def entries = unzip zipFile: 'example.zip', list: true</code>
+     *
+     * @return if the entries should just be listed
+     */
+    public boolean isList() {
+        return list;
+    }
+
+    /**
+     * List the entries from the central directory of the zip file instead of extracting them.
+     * Nothing is inflated, the step returns the name, size, compressed size, CRC and time of every matching entry.
+     * <em>E.g.</em>
+     * <code>def entries = unzip zipFile: 'example.zip', list: true</code>
+     *
+     * @param list if the entries should just be listed
+     */
+    @DataBoundSetter
+    public void setList(boolean list) {
+        this.list = list;
+    }
+
     /**
      * Get the charset to use when unzipping the zip file. <em>E.g. UTF-8</em>
      *
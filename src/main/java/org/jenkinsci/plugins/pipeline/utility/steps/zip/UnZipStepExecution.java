@@ -27,24 +27,46 @@ package org.jenkinsci.plugins.pipeline.utility.steps.zip;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.FilePath;
 import hudson.model.TaskListener;
+import hudson.remoting.RemoteOutputStream;
 import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tools.ant.types.selectors.SelectorUtils;
 import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
 import org.jenkinsci.plugins.pipeline.utility.steps.DecompressStepExecution;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
+import org.jenkinsci.plugins.pipeline.utility.steps.LocalDestination;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 import java.util.zip.ZipEntry;
@@ -72,88 +94,210 @@ public class UnZipStepExecution extends DecompressStepExecution {
         assert listener != null;
 
         if (step.isTest()) {
-            setCallable(new TestZipFileCallable(listener));
+            setCallable(new TestZipFileCallable(listener, step.getExtractThreads(), step.isReport()));
+        } else if (step.isList()) {
+            setCallable(new ListZipFileCallable(listener, step.getGlob(), step.getExclude(), step.getCharset(), step.isQuiet()));
         } else {
-            setCallable(new UnZipFileCallable(listener, step.getGlob(), step.isRead(),step.getCharset(),step.isQuiet()));
+            UnZipFileCallable callable = new UnZipFileCallable(listener, step.getGlob(), step.getExclude(), step.isRead(),
+                    step.getCharset(), step.isQuiet(), step.getExtractThreads());
+            if (step.isRead()) {
+                callable.setReadLimits(step.getReadLimit(), step.getReadTotalLimit(), step.isTruncate());
+                callable.setBinaryContent(step.getBinaryContent());
+                ReadEntriesCollector collector = new ReadEntriesCollector(Charset.forName(step.getCharset()));
+                callable.setReadSink(new RemoteOutputStream(collector));
+                setCallable(callable);
+                super.run();
+                // the agent has returned, but the last frames it sent may still be written to the collector
+                FilePath workspace = getContext().get(FilePath.class);
+                VirtualChannel channel = workspace != null ? workspace.getChannel() : null;
+                if (channel != null) {
+                    channel.syncLocalIO();
+                }
+                return collector.getEntries();
+            }
+            setCallable(callable);
         }
         return super.run();
     }
 
+    @Override
+    protected Object testFailed(@NonNull String error) {
+        if (step.isReport()) {
+            return new ZipTestReport(Collections.emptyList(), Collections.singletonList(error), 0, 0, 0);
+        }
+        return super.testFailed(error);
+    }
+
     /**
      * Performs the unzip on the slave where the zip file is located.
      */
     public static class UnZipFileCallable extends AbstractFileCallable<Map<String,String>> {
+        /**
+         * How many chunks of entries each extraction thread gets on average,
+         * more chunks even out entries of different sizes.
+         */
+        private static final int CHUNKS_PER_THREAD = 4;
+
         private final TaskListener listener;
         private final String glob;
+        private final String exclude;
         private final boolean read;
         private final boolean quiet;
         private final String charset;
+        private final int extractThreads;
+        private long readLimit;
+        private long readTotalLimit;
+        private boolean truncate;
+        private BinaryContent binaryContent = BinaryContent.TEXT;
+        private RemoteOutputStream readSink;
 
         public UnZipFileCallable(TaskListener listener, String glob, boolean read, String charset, boolean quiet) {
+            this(listener, glob, read, charset, quiet, 1);
+        }
+
+        public UnZipFileCallable(TaskListener listener, String glob, boolean read, String charset, boolean quiet, int extractThreads) {
+            this(listener, glob, null, read, charset, quiet, extractThreads);
+        }
+
+        public UnZipFileCallable(TaskListener listener, String glob, String exclude, boolean read, String charset, boolean quiet,
+                                 int extractThreads) {
             this.listener = listener;
             this.glob = glob;
+            this.exclude = exclude;
             this.read = read;
             this.charset = charset;
             this.quiet = quiet;
+            this.extractThreads = extractThreads;
+        }
+
+        /**
+         * Limits how much is read when reading the files instead of extracting them.
+         *
+         * @param readLimit the maximum number of bytes to read from one file, 0 for no limit
+         * @param readTotalLimit the maximum number of bytes to read from all files, 0 for no limit
+         * @param truncate if content over the limits should be left out instead of failing
+         */
+        public void setReadLimits(long readLimit, long readTotalLimit, boolean truncate) {
+            this.readLimit = readLimit;
+            this.readTotalLimit = readTotalLimit;
+            this.truncate = truncate;
+        }
+
+        /**
+         * @param binaryContent what to do with binary files when reading the files instead of extracting them
+         */
+        public void setBinaryContent(@NonNull BinaryContent binaryContent) {
+            this.binaryContent = binaryContent;
+        }
+
+        /**
+         * A stream to send the read files to as they are read, instead of returning all of them in a map.
+         * The stream receives the frames a {@link ReadEntriesCollector} understands.
+         *
+         * @param readSink the stream or null to return the files
+         */
+        public void setReadSink(RemoteOutputStream readSink) {
+            this.readSink = readSink;
         }
 
         @Override
         public Map<String, String> invoke(File zipFile, VirtualChannel channel) throws IOException, InterruptedException {
+            LocalDestination destination = getLocalDestination();
             if (!read) {
-                getDestination().mkdirs();
+                destination.createDirectories(destination.getBase());
             }
             PrintStream logger = listener.getLogger();
-            boolean doGlob = !StringUtils.isBlank(glob);
+            GlobMatcher matcher = StringUtils.isBlank(glob) && StringUtils.isBlank(exclude)
+                    ? null : GlobMatcher.of(glob, exclude, false);
             Map<String, String> strMap = new TreeMap<>();
-            try (ZipFile zip = new ZipFile(zipFile, Charset.forName(charset))) {
+            boolean parallel = !read && extractThreads > 1;
+            List<ZipEntry> parallelEntries = new ArrayList<>();
+            List<Path> parallelTargets = new ArrayList<>();
+            Charset contentCharset = Charset.forName(charset);
+            long readTotal = 0;
+            try (ZipFile zip = new ZipFile(zipFile, contentCharset);
+                 DataOutputStream frames = read && readSink != null
+                         ? new DataOutputStream(new BufferedOutputStream(readSink, 64 * 1024)) : null) {
                 logger.println("Extracting from " + zipFile.getAbsolutePath());
                 Enumeration<? extends ZipEntry> entries = zip.entries();
                 Integer fileCount = 0;
                 while (entries.hasMoreElements()) {
                     ZipEntry entry = entries.nextElement();
-                    if (doGlob && !matches(entry.getName(), glob)) {
+                    if (matcher != null && !matcher.matches(entry.getName())) {
                         continue;
                     }
-                    FilePath f = getDestination().child(entry.getName());
-                    if (!isDescendantOfDestination(f)) {
-                        throw new FileNotFoundException(f.getRemote() + " is out of bounds!");
-                    }
+                    Path f = destination.resolve(entry.getName());
                     if (entry.isDirectory()) {
                         if (!read) {
-                            f.mkdirs();
+                            destination.createDirectories(f);
                         }
-                    } else {
+                    } else if (!read) {
                         fileCount++;
+                        if (!quiet) {
+                            logger.printf("Extracting: %s -> %s%n", entry.getName(), f);
+                        }
 
-                        if (!read) {
-                            if (!quiet) {
-                                logger.printf("Extracting: %s -> %s%n", entry.getName(), f.getRemote());
-                            }
-
-                            /*
-                            It is not by all means required to close the input streams of the zip file because they are
-                            closed once the zip file is closed. How ever doing so allows the zip class to reuse the
-                            Inflater instance that is used.
-                             */
-                            try (InputStream inputStream = zip.getInputStream(entry);
-                                 OutputStream outputStream = f.write()) {
-                                IOUtils.copy(inputStream, outputStream);
-                                outputStream.flush();
-                            }
+                        if (parallel) {
+                            // create the directories up front so the extraction threads don't race on them
+                            destination.createDirectories(f.getParent());
+                            parallelEntries.add(entry);
+                            parallelTargets.add(f);
                         } else {
-                            if (!quiet) {
-                                logger.printf("Reading: %s%n", entry.getName());
-                            }
+                            extract(zip, entry, f, destination);
+                        }
+                    } else {
+                        long limit = readLimit > 0 ? readLimit : Long.MAX_VALUE;
+                        boolean totalLimited = readTotalLimit > 0 && readTotalLimit - readTotal < limit;
+                        if (totalLimited) {
+                            limit = readTotalLimit - readTotal;
+                        }
+                        if (limit <= 0 && truncate) {
+                            logger.printf("Skipping: %s, the total read limit of %d bytes is reached%n", entry.getName(), readTotalLimit);
+                            continue;
+                        }
+                        if (!quiet) {
+                            logger.printf("Reading: %s%n", entry.getName());
+                        }
 
-                            try (InputStream is = zip.getInputStream(entry)) {
-                                strMap.put(entry.getName(), IOUtils.toString(is, Charset.defaultCharset()));
+                        byte[] data;
+                        try (InputStream is = zip.getInputStream(entry)) {
+                            // one byte more than allowed tells if the file is over the limit
+                            data = readAtMost(is, limit == Long.MAX_VALUE ? limit : limit + 1);
+                        }
+                        int length = data.length;
+                        if (length > limit) {
+                            if (!truncate) {
+                                throw new IOException(totalLimited
+                                        ? "Reading " + entry.getName() + " exceeds the total read limit of " + readTotalLimit + " bytes"
+                                        : entry.getName() + " is larger than the read limit of " + readLimit + " bytes");
                             }
+                            length = (int) limit;
+                            logger.printf("Truncated: %s to %d bytes%n", entry.getName(), length);
+                        }
+                        boolean binary = BinaryContent.isBinary(data, length);
+                        if (binary && binaryContent == BinaryContent.SKIP) {
+                            logger.printf("Skipping binary file: %s%n", entry.getName());
+                            continue;
+                        }
+                        boolean base64 = binary && binaryContent == BinaryContent.BASE64;
+                        readTotal += length;
+                        fileCount++;
+                        if (frames != null) {
+                            frames.writeUTF(entry.getName());
+                            frames.writeBoolean(base64);
+                            frames.writeInt(length);
+                            frames.write(data, 0, length);
+                        } else {
+                            strMap.put(entry.getName(), BinaryContent.toString(data, 0, length, base64, contentCharset));
                         }
                     }
                 }
+                if (!parallelEntries.isEmpty()) {
+                    extractParallel(zip, parallelEntries, parallelTargets, destination);
+                }
                 if (read) {
                     logger.printf("Read: %d files%n", fileCount);
-                    return strMap;
+                    return frames != null ? null : strMap;
                 } else {
                     logger.printf("Extracted: %d files%n", fileCount);
                     return null;
@@ -163,65 +307,337 @@ public class UnZipStepExecution extends DecompressStepExecution {
             }
         }
 
-        boolean matches(String path, String glob) {
-            String safeGlob = glob.replace('/', File.separatorChar);
-            String safePath = path.replace('/', File.separatorChar);
-            return SelectorUtils.matchPath(safeGlob, safePath);
+        /**
+         * Splits the entries into chunks of about the same compressed size and extracts the chunks in parallel.
+         * The chunks keep the order of the central directory so each thread reads a continuous part of the zip file.
+         */
+        private void extractParallel(ZipFile zip, List<ZipEntry> entries, List<Path> targets, LocalDestination destination)
+                throws IOException, InterruptedException {
+            long total = 0;
+            for (ZipEntry entry : entries) {
+                total += chunkWeight(entry);
+            }
+            int chunks = Math.min(entries.size(), extractThreads * CHUNKS_PER_THREAD);
+            long chunkSize = Math.max(1, total / chunks);
+
+            ExecutorService executor = Executors.newFixedThreadPool(extractThreads,
+                    new NamingThreadFactory(new DaemonThreadFactory(), "unzip"));
+            try {
+                List<Future<Void>> futures = new ArrayList<>();
+                int start = 0;
+                long weight = 0;
+                for (int i = 0; i < entries.size(); i++) {
+                    weight += chunkWeight(entries.get(i));
+                    if (weight >= chunkSize || i == entries.size() - 1) {
+                        final int from = start;
+                        final int to = i + 1;
+                        futures.add(executor.submit(() -> {
+                            for (int j = from; j < to; j++) {
+                                extract(zip, entries.get(j), targets.get(j), destination);
+                            }
+                            return null;
+                        }));
+                        start = to;
+                        weight = 0;
+                    }
+                }
+                for (Future<Void> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof IOException) {
+                            throw (IOException) cause;
+                        }
+                        if (cause instanceof InterruptedException) {
+                            throw (InterruptedException) cause;
+                        }
+                        throw new IOException(cause);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private static byte[] readAtMost(InputStream in, long limit) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            long left = limit;
+            int n;
+            while (left > 0 && (n = in.read(buffer, 0, (int) Math.min(buffer.length, left))) != -1) {
+                out.write(buffer, 0, n);
+                left -= n;
+            }
+            return out.toByteArray();
+        }
+
+        private static long chunkWeight(ZipEntry entry) {
+            // the compressed size is what needs to be read and inflated, count every entry to spread empty files too
+            return Math.max(0, entry.getCompressedSize()) + 1;
+        }
+
+        private static void extract(ZipFile zip, ZipEntry entry, Path f, LocalDestination destination) throws IOException {
+            /*
+            It is not by all means required to close the input streams of the zip file because they are
+            closed once the zip file is closed. How ever doing so allows the zip class to reuse the
+            Inflater instance that is used.
+             */
+            try (InputStream inputStream = zip.getInputStream(entry);
+                 OutputStream outputStream = destination.newOutputStream(f)) {
+                IOUtils.copy(inputStream, outputStream);
+                outputStream.flush();
+            }
+        }
+    }
+
+    /**
+     * Receives the files read by a {@link UnZipFileCallable} on the controller while they are sent,
+     * so that neither side has to hold all of them at once in a serialized map.
+     *
+     * Every file is sent as a frame of its name written by {@link DataOutputStream#writeUTF(String)},
+     * a boolean that tells if the content is binary that should be Base64 encoded,
+     * and the length of the content as an int followed by the content.
+     */
+    static class ReadEntriesCollector extends OutputStream {
+        private final Charset charset;
+        private final Map<String, String> entries = new TreeMap<>();
+        private byte[] buffer = new byte[8192];
+        private int length;
+
+        ReadEntriesCollector(Charset charset) {
+            this.charset = charset;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            if (length + len > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + len));
+            }
+            System.arraycopy(b, off, buffer, length, len);
+            length += len;
+
+            int pos = 0;
+            while (length - pos >= 2) {
+                int nameLength = ((buffer[pos] & 0xff) << 8) | (buffer[pos + 1] & 0xff);
+                int header = 2 + nameLength + 1 + 4;
+                if (length - pos < header) {
+                    break;
+                }
+                int contentLength = ByteBuffer.wrap(buffer, pos + header - 4, 4).getInt();
+                if (length - pos < header + contentLength) {
+                    break;
+                }
+                String name = new DataInputStream(new ByteArrayInputStream(buffer, pos, 2 + nameLength)).readUTF();
+                boolean base64 = buffer[pos + 2 + nameLength] != 0;
+                entries.put(name, BinaryContent.toString(buffer, pos + header, contentLength, base64, charset));
+                pos += header + contentLength;
+            }
+            if (pos > 0) {
+                System.arraycopy(buffer, pos, buffer, 0, length - pos);
+                length -= pos;
+            }
+        }
+
+        /**
+         * @return the received files by their path in the zip file
+         * @throws IOException if the last file was not received completely
+         */
+        synchronized Map<String, String> getEntries() throws IOException {
+            if (length > 0) {
+                throw new IOException("The content of the read files was not received completely");
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Lists the entries of a zip file on the agent where the file is, from its central directory.
+     */
+    static class ListZipFileCallable extends AbstractFileCallable<ZipEntryWrapper[]> {
+        private final TaskListener listener;
+        private final String glob;
+        private final String exclude;
+        private final String charset;
+        private final boolean quiet;
+
+        ListZipFileCallable(TaskListener listener, String glob, String exclude, String charset, boolean quiet) {
+            this.listener = listener;
+            this.glob = glob;
+            this.exclude = exclude;
+            this.charset = charset;
+            this.quiet = quiet;
+        }
+
+        @Override
+        public ZipEntryWrapper[] invoke(File zipFile, VirtualChannel channel) throws IOException, InterruptedException {
+            PrintStream logger = listener.getLogger();
+            GlobMatcher matcher = StringUtils.isBlank(glob) && StringUtils.isBlank(exclude)
+                    ? null : GlobMatcher.of(glob, exclude, false);
+            List<ZipEntryWrapper> result = new ArrayList<>();
+            // opening the zip file only reads the central directory, the entries are never inflated
+            try (ZipFile zip = new ZipFile(zipFile, Charset.forName(charset))) {
+                logger.println("Listing " + zipFile.getAbsolutePath());
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (matcher != null && !matcher.matches(entry.getName())) {
+                        continue;
+                    }
+                    if (!quiet) {
+                        logger.printf("Listing: %s%n", entry.getName());
+                    }
+                    result.add(new ZipEntryWrapper(entry));
+                }
+                logger.printf("Listed: %d entries%n", result.size());
+                return result.toArray(new ZipEntryWrapper[0]);
+            } finally {
+                logger.flush();
+            }
         }
     }
 
     /**
      * Performs a test of a zip file on the slave where the file is.
+     * The checksums of the entries are verified on a pool of threads, stopping at the first entry that fails.
      */
-    static class TestZipFileCallable extends AbstractFileCallable<Boolean> {
-        private TaskListener listener;
+    static class TestZipFileCallable extends AbstractFileCallable<Object> {
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final TaskListener listener;
+        private final int threads;
+        private final boolean report;
 
         public TestZipFileCallable(TaskListener listener) {
+            this(listener, 1, false);
+        }
+
+        /**
+         * @param listener the listener
+         * @param threads the number of threads to verify the entries with
+         * @param report if a {@link ZipTestReport} should be returned instead of a boolean
+         */
+        TestZipFileCallable(TaskListener listener, int threads, boolean report) {
             this.listener = listener;
+            this.threads = threads;
+            this.report = report;
         }
 
         @Override
-        public Boolean invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
+        public Object invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
             PrintStream logger = listener.getLogger();
+            long start = System.nanoTime();
+            List<String> badEntries = Collections.synchronizedList(new ArrayList<>());
+            List<String> errors = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger verified = new AtomicInteger();
+            AtomicLong bytes = new AtomicLong();
             try (ZipFile zip = new ZipFile(f)) {
                 logger.printf("Checking %d zipped entries in %s%n", zip.size(), f.getAbsolutePath());
 
-                Checksum checksum = new CRC32();
-                byte[] buffer = new byte[4096];
-
+                List<ZipEntry> files = new ArrayList<>();
+                FilePath destination = getDestination();
                 Enumeration<? extends ZipEntry> entries = zip.entries();
                 while (entries.hasMoreElements()) {
-                    checksum.reset();
-
                     ZipEntry entry = entries.nextElement();
                     if (!entry.isDirectory()) {
-                        FilePath destination = getDestination();
                         if (destination != null) {
                             FilePath ef = destination.child(entry.getName());
                             if (!isDescendantOfDestination(ef)) {
-                                listener.error(ef.getRemote() + " is out of bounds!");
-                                return false;
+                                badEntries.add(entry.getName());
+                                errors.add(ef.getRemote() + " is out of bounds!");
+                                break;
                             }
                         }
-                        try (InputStream inputStream = zip.getInputStream(entry)) {
-                            int length;
-                            while ((length = IOUtils.read(inputStream, buffer)) > 0) {
-                                checksum.update(buffer, 0, length);
+                        files.add(entry);
+                    }
+                }
+
+                if (errors.isEmpty()) {
+                    AtomicInteger next = new AtomicInteger();
+                    Callable<Void> worker = () -> {
+                        byte[] buffer = new byte[BUFFER_SIZE];
+                        Checksum checksum = new CRC32();
+                        int i;
+                        while (errors.isEmpty() && (i = next.getAndIncrement()) < files.size()) {
+                            ZipEntry entry = files.get(i);
+                            checksum.reset();
+                            long size = 0;
+                            try (InputStream inputStream = zip.getInputStream(entry)) {
+                                int length;
+                                while ((length = IOUtils.read(inputStream, buffer)) > 0) {
+                                    checksum.update(buffer, 0, length);
+                                    size += length;
+                                }
+                            } catch (ZipException e) {
+                                badEntries.add(entry.getName());
+                                errors.add("Error validating zip file: " + e.getMessage());
+                                break;
                             }
                             if (checksum.getValue() != entry.getCrc()) {
-                                listener.error("Checksum error in : " + f.getAbsolutePath() + ":" + entry.getName());
-                                return false;
+                                badEntries.add(entry.getName());
+                                errors.add("Checksum error in : " + f.getAbsolutePath() + ":" + entry.getName());
+                                break;
                             }
+                            verified.incrementAndGet();
+                            bytes.addAndGet(size);
                         }
-                    }
+                        return null;
+                    };
+                    verify(worker, Math.min(threads, files.size()));
                 }
-                return true;
             } catch (ZipException e) {
-                listener.error("Error validating zip file: " + e.getMessage());
-                return false;
+                errors.add("Error validating zip file: " + e.getMessage());
             } finally {
                 logger.flush();
             }
+
+            for (String error : errors) {
+                listener.error(error);
+            }
+            ZipTestReport result = new ZipTestReport(badEntries, errors, verified.get(), bytes.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            logger.printf("Verified %d entries, %d bytes in %d ms%n", result.getEntriesVerified(), result.getBytesVerified(),
+                    result.getDurationMillis());
+            return report ? result : (Object) result.isValid();
+        }
+
+        private static void verify(Callable<Void> worker, int threads) throws IOException, InterruptedException {
+            if (threads <= 1) {
+                try {
+                    worker.call();
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+                return;
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads,
+                    new NamingThreadFactory(new DaemonThreadFactory(), "unzip-test"));
+            try {
+                List<Future<Void>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(worker));
+                }
+                for (Future<Void> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof IOException) {
+                            throw (IOException) cause;
+                        }
+                        throw new IOException(cause);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
         }
     }
 }
@@ -0,0 +1,455 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.zip;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.IOUtils;
+import hudson.util.NamingThreadFactory;
+import hudson.util.io.Archiver;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * An {@link Archiver} that deflates the visited files on a pool of worker threads
+ * and writes the finished entries to a standard zip file.
+ *
+ * Entries are written in the same order as they were visited, so the result is identical to a serial run
+ * apart from the compressed bytes themselves.
+ * The number of entries that are compressed but not yet written is bounded to keep the memory usage down,
+ * and entries that don't fit in memory are spilled to a temporary file until it is their turn.
+ *
+ * With a compression level of <code>0</code> the files are stored instead.
+ * The worker threads then only compute the checksums, on memory mapped files for large ones,
+ * and the content is copied into the zip file once, when it is the entry's turn.
+ *
+ * When the previous version of the zip file is given, entries of files that have the same size and modification time
+ * are copied over without inflating and deflating them again.
+ * Files with the same size but another modification time, or modified within the time resolution of the zip format
+ * before the previous version was written, are checksummed and only compressed if the checksum differs.
+ * A reproducible zip file has no real modification times, so all of its files with the same size are checksummed.
+ */
+class ZipArchiveWriter extends Archiver {
+    /**
+     * Compressed entries larger than this are buffered in a temporary file instead of on the heap.
+     */
+    static final int MEMORY_THRESHOLD = 4 * 1024 * 1024;
+    /**
+     * Files at least this large are memory mapped to compute the checksum of stored entries.
+     */
+    static final int MAP_THRESHOLD = 1024 * 1024;
+    private static final long MAP_CHUNK = 256L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Zip files store the modification time in DOS format, which has a resolution of two seconds.
+     */
+    private static final long TIME_RESOLUTION = 2000;
+
+    private final ZipArchiveOutputStream zip;
+    private final ExecutorService executor;
+    private final Deque<Future<CompressedEntry>> pending = new ArrayDeque<>();
+    private final int window;
+    private final int level;
+    private final ZipFile previous;
+    private final long previousModified;
+    private int entriesReused;
+    private boolean reproducible;
+
+    /**
+     * @param out the stream to write the zip file to
+     * @param parallelism the number of worker threads
+     * @param level the deflate level, <code>0</code> to store the files or a negative number for the default level
+     */
+    ZipArchiveWriter(OutputStream out, int parallelism, int level) {
+        this(out, parallelism, level, null, 0);
+    }
+
+    /**
+     * @param out the stream to write the zip file to
+     * @param parallelism the number of worker threads
+     * @param level the deflate level, <code>0</code> to store the files or a negative number for the default level
+     * @param previous the previous version of the zip file to reuse the unchanged entries from
+     * @param previousModified when the previous version was last modified
+     */
+    ZipArchiveWriter(OutputStream out, int parallelism, int level, @CheckForNull ZipFile previous, long previousModified) {
+        this.previous = previous;
+        this.previousModified = previousModified;
+        this.level = level < 0 ? Deflater.DEFAULT_COMPRESSION : Math.min(level, Deflater.BEST_COMPRESSION);
+        zip = new ZipArchiveOutputStream(out);
+        zip.setEncoding(Charset.defaultCharset().name());
+        zip.setUseZip64(Zip64Mode.AsNeeded);
+        int threads = Math.max(1, parallelism);
+        executor = Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "zip"));
+        window = threads * 2;
+    }
+
+    /**
+     * Makes the zip file depend on nothing but the names and content of the files:
+     * the modification times are fixed, the permissions reduced to executable or not and the names encoded in UTF-8.
+     * The files still need to be visited in a stable order.
+     *
+     * @param reproducible true to write a reproducible zip file
+     */
+    void setReproducible(boolean reproducible) {
+        this.reproducible = reproducible;
+        zip.setEncoding(reproducible ? StandardCharsets.UTF_8.name() : Charset.defaultCharset().name());
+    }
+
+    @Override
+    public void visit(File f, String relativePath) throws IOException {
+        // ZipEntry requires '/' as the path separator
+        String name = relativePath.replace('\\', '/');
+        Path path = f.toPath();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        int mode = IOUtils.mode(f);
+        long modified = attributes.lastModifiedTime().toMillis();
+        long time = modified;
+        if (reproducible) {
+            mode = normalizeMode(mode, attributes.isDirectory());
+            time = reproducibleTime();
+        }
+        if (attributes.isDirectory()) {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name + '/');
+            if (mode != -1) {
+                entry.setUnixMode(mode);
+            }
+            entry.setTime(time);
+            pending.add(CompletableFuture.completedFuture(new CompressedEntry(entry, null, null, null)));
+        } else {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            if (mode != -1) {
+                entry.setUnixMode(mode);
+            }
+            entry.setTime(time);
+            ZipArchiveEntry previousEntry = previous == null ? null : previous.getEntry(name);
+            if (isReusable(previousEntry, attributes.size())) {
+                // the fixed times of a reproducible zip file say nothing about the files, only the checksum can tell
+                if (!reproducible && Math.abs(previousEntry.getTime() - modified) < TIME_RESOLUTION
+                        && modified + TIME_RESOLUTION < previousModified) {
+                    pending.add(CompletableFuture.completedFuture(reuse(previousEntry, entry)));
+                } else {
+                    // touched but maybe not changed, or changed too close to the previous version to tell by the time,
+                    // only the checksum can tell
+                    pending.add(executor.submit(() -> checksum(path, attributes.size()) == previousEntry.getCrc()
+                            ? reuse(previousEntry, entry)
+                            : compress(path, entry)));
+                }
+            } else {
+                pending.add(executor.submit(() -> compress(path, entry)));
+            }
+        }
+        while (pending.size() >= window) {
+            writeNext();
+        }
+    }
+
+    private static int normalizeMode(int mode, boolean directory) {
+        if (directory || (mode != -1 && (mode & 0111) != 0)) {
+            return 0755;
+        }
+        return 0644;
+    }
+
+    /**
+     * The earliest time a zip file can hold.
+     * Zip files store the local time, so it is computed in the local time zone to give the same bytes everywhere.
+     */
+    private static long reproducibleTime() {
+        return LocalDateTime.of(1980, 1, 1, 0, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * The number of entries that were copied from the previous version of the zip file without compressing them again.
+     *
+     * @return the number of reused entries
+     */
+    int getEntriesReused() {
+        return entriesReused;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+            zip.finish();
+        } finally {
+            for (Future<CompressedEntry> future : pending) {
+                discard(future);
+            }
+            executor.shutdownNow();
+            zip.close();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        CompressedEntry compressed;
+        try {
+            compressed = pending.peek().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing " + pending.size() + " entries");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+        pending.remove();
+        try {
+            if (compressed.previousEntry != null) {
+                try (InputStream in = previous.getRawInputStream(compressed.previousEntry)) {
+                    zip.addRawArchiveEntry(compressed.entry, in);
+                }
+                entriesReused++;
+            } else if (compressed.source != null) {
+                try (InputStream in = new StoredInputStream(Files.newInputStream(compressed.source), compressed.entry)) {
+                    zip.addRawArchiveEntry(compressed.entry, in);
+                }
+            } else if (compressed.data == null) {
+                zip.putArchiveEntry(compressed.entry);
+                zip.closeArchiveEntry();
+            } else {
+                try (InputStream in = compressed.data.toInputStream()) {
+                    zip.addRawArchiveEntry(compressed.entry, in);
+                }
+            }
+            entriesWritten++;
+        } finally {
+            compressed.discard();
+        }
+    }
+
+    private CompressedEntry compress(Path path, ZipArchiveEntry entry) throws IOException {
+        if (level == Deflater.NO_COMPRESSION) {
+            return store(path, entry);
+        }
+        return deflate(path, entry, level);
+    }
+
+    private static CompressedEntry deflate(Path path, ZipArchiveEntry entry, int level) throws IOException {
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(level, true);
+        DeferredFileOutputStream data = DeferredFileOutputStream.builder()
+                .setThreshold(MEMORY_THRESHOLD)
+                .setPrefix("zip")
+                .setSuffix(".tmp")
+                .get();
+        long size = 0;
+        try (InputStream in = Files.newInputStream(path);
+             DeflaterOutputStream out = new DeflaterOutputStream(data, deflater, BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                crc.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException e) {
+            new CompressedEntry(entry, data, null, null).discard();
+            throw e;
+        } finally {
+            deflater.end();
+        }
+        entry.setMethod(ZipEntry.DEFLATED);
+        entry.setSize(size);
+        entry.setCrc(crc.getValue());
+        entry.setCompressedSize(data.getByteCount());
+        return new CompressedEntry(entry, data, null, null);
+    }
+
+    /**
+     * Computes the checksum of a file that is stored as is.
+     * The content is read again when the entry is written, through a {@link StoredInputStream}.
+     */
+    private static CompressedEntry store(Path path, ZipArchiveEntry entry) throws IOException {
+        long size = Files.size(path);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(checksum(path, size));
+        return new CompressedEntry(entry, null, path, null);
+    }
+
+    /**
+     * Computes the CRC-32 of a file, memory mapping it if it is large.
+     */
+    private static long checksum(Path path, long size) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (size >= MAP_THRESHOLD) {
+                for (long position = 0; position < size; position += MAP_CHUNK) {
+                    crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK, size - position)));
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                    // a read can be partial, the whole file is checksummed once it is read
+                }
+                crc.update(buffer.flip());
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Reuses the compressed data of an unchanged entry from the previous version of the zip file.
+     */
+    private static CompressedEntry reuse(ZipArchiveEntry previousEntry, ZipArchiveEntry entry) {
+        entry.setMethod(previousEntry.getMethod());
+        entry.setSize(previousEntry.getSize());
+        entry.setCompressedSize(previousEntry.getCompressedSize());
+        entry.setCrc(previousEntry.getCrc());
+        return new CompressedEntry(entry, null, null, previousEntry);
+    }
+
+    /**
+     * If the compressed data of the previous entry can be copied as is for the given file.
+     * Only the sizes are compared here, the checksum or time stamp decides later.
+     */
+    private static boolean isReusable(ZipArchiveEntry previousEntry, long size) {
+        return previousEntry != null && !previousEntry.isDirectory()
+                && (previousEntry.getMethod() == ZipEntry.STORED || previousEntry.getMethod() == ZipEntry.DEFLATED)
+                && !previousEntry.getGeneralPurposeBit().usesEncryption()
+                && previousEntry.getSize() == size;
+    }
+
+    private static void discard(Future<CompressedEntry> future) {
+        if (!future.cancel(true) && future.isDone()) {
+            try {
+                future.get().discard();
+            } catch (InterruptedException | ExecutionException | IOException e) {
+                // Nothing to clean up
+            }
+        }
+    }
+
+    /**
+     * Reads exactly the size of a stored entry from its file and fails if the content isn't what was checksummed,
+     * so that a file changed after its checksum was computed can't give an entry whose data doesn't match its header.
+     */
+    private static class StoredInputStream extends FilterInputStream {
+        private final ZipArchiveEntry entry;
+        private final CRC32 crc = new CRC32();
+        private long remaining;
+
+        StoredInputStream(InputStream in, ZipArchiveEntry entry) {
+            super(in);
+            this.entry = entry;
+            this.remaining = entry.getSize();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (remaining == 0) {
+                if (in.read() != -1 || crc.getValue() != entry.getCrc()) {
+                    throw changed();
+                }
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read == -1) {
+                throw changed();
+            }
+            crc.update(b, off, read);
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            // every byte has to go through the checksum
+            return 0;
+        }
+
+        private IOException changed() {
+            return new IOException(entry.getName() + " was changed while it was archived");
+        }
+    }
+
+    /**
+     * An entry with its compressed data, the file to store or the entry to reuse, none of them for directories.
+     */
+    private static class CompressedEntry {
+        final ZipArchiveEntry entry;
+        final DeferredFileOutputStream data;
+        final Path source;
+        final ZipArchiveEntry previousEntry;
+
+        CompressedEntry(ZipArchiveEntry entry, DeferredFileOutputStream data, Path source, ZipArchiveEntry previousEntry) {
+            this.entry = entry;
+            this.data = data;
+            this.source = source;
+            this.previousEntry = previousEntry;
+        }
+
+        void discard() throws IOException {
+            if (data != null && !data.isInMemory()) {
+                Files.deleteIfExists(data.getFile().toPath());
+            }
+        }
+    }
+}
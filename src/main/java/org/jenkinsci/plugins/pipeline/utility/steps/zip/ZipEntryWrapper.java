@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.zip;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
+
+import java.io.Serializable;
+import java.util.zip.ZipEntry;
+
+/**
+ * Contains serializable information about an entry in a zip file, as listed in its central directory.
+ */
+public class ZipEntryWrapper implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @NonNull
+    private final String name;
+    private final boolean directory;
+    private final long size;
+    private final long compressedSize;
+    private final long crc;
+    private final long lastModified;
+
+    public ZipEntryWrapper(@NonNull String name, boolean directory, long size, long compressedSize, long crc, long lastModified) {
+        this.name = name;
+        this.directory = directory;
+        this.size = size;
+        this.compressedSize = compressedSize;
+        this.crc = crc;
+        this.lastModified = lastModified;
+    }
+
+    protected ZipEntryWrapper(@NonNull ZipEntry entry) {
+        this(entry.getName(), entry.isDirectory(), entry.getSize(), entry.getCompressedSize(), entry.getCrc(), entry.getTime());
+    }
+
+    /**
+     * @return the path of the entry in the zip file
+     */
+    @Whitelisted @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Whitelisted
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the uncompressed size, or -1 if not known
+     */
+    @Whitelisted
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the compressed size, or -1 if not known
+     */
+    @Whitelisted
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * @return the CRC-32 checksum of the uncompressed data, or -1 if not known
+     */
+    @Whitelisted
+    public long getCrc() {
+        return crc;
+    }
+
+    /**
+     * @return the modification time in milliseconds since the epoch, or -1 if not known
+     */
+    @Whitelisted
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    @Override @Whitelisted @NonNull
+    public String toString() {
+        return getName();
+    }
+
+    @Override @Whitelisted
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ZipEntryWrapper)) return false;
+
+        ZipEntryWrapper that = (ZipEntryWrapper)o;
+
+        return getName().equals(that.getName());
+    }
+
+    @Override @Whitelisted
+    public int hashCode() {
+        return getName().hashCode();
+    }
+}
@@ -34,6 +34,7 @@ import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 import org.jenkinsci.plugins.workflow.steps.StepExecution;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import java.util.Set;
 
@@ -43,6 +44,8 @@ import java.util.Set;
  * @author Robert Sandell &lt;rsandell@cloudbees.com&gt;.
  */
 public class ZipStep extends AbstractFileCompressStep {
+    private int parallelism = 1;
+    private boolean update = false;
 
     @DataBoundConstructor
     public ZipStep(String zipFile) throws Descriptor.FormException {
@@ -61,6 +64,48 @@ public class ZipStep extends AbstractFileCompressStep {
         return getFile();
     }
 
+    /**
+     * The number of threads to compress the entries with on the agent.
+     * The default of <code>1</code> compresses the files one after another.
+     *
+     * @return the number of compression threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The number of threads to compress the entries with on the agent.
+     * The default of <code>1</code> compresses the files one after another.
+     *
+     * @param parallelism the number of compression threads
+     */
+    @DataBoundSetter
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * If an existing zip file should be updated instead of failing or being overwritten.
+     *
+     * @return true if the zip file is updated
+     */
+    public boolean isUpdate() {
+        return update;
+    }
+
+    /**
+     * Update an existing zip file instead of failing or overwriting it.
+     * Entries of files that have not changed are copied from the existing zip file without compressing them again,
+     * and entries of files that no longer match are dropped.
+     *
+     * @param update true to update the zip file
+     */
+    @DataBoundSetter
+    public void setUpdate(boolean update) {
+        this.update = update;
+    }
+
     @Override
     public StepExecution start(StepContext context) throws Exception {
         return new ZipStepExecution(this, context);
@@ -26,22 +26,32 @@ package org.jenkinsci.plugins.pipeline.utility.steps.zip;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.FilePath;
-import hudson.Util;
 import hudson.remoting.VirtualChannel;
 import hudson.util.io.Archiver;
 import hudson.util.io.ArchiverFactory;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tools.ant.DirectoryScanner;
-import org.apache.tools.ant.types.FileSet;
 import org.jenkinsci.plugins.pipeline.utility.steps.AbstractFileCallable;
 import org.jenkinsci.plugins.pipeline.utility.steps.CompressStepExecution;
+import org.jenkinsci.plugins.pipeline.utility.steps.GlobMatcher;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.FileOwnerAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Execution of {@link ZipStep}.
@@ -50,6 +60,7 @@ import java.nio.file.Paths;
  */
 public class ZipStepExecution extends CompressStepExecution {
     private static final long serialVersionUID = 3738228158324163075L;
+    private static final Logger LOGGER = Logger.getLogger(ZipStepExecution.class.getName());
 
     private transient ZipStep step;
 
@@ -60,10 +71,16 @@ public class ZipStepExecution extends CompressStepExecution {
 
     @Override
     protected Void run() throws Exception {
-        setCallable(new ZipItFileCallable(step.getGlob(), step.getExclude(), step.isOverwrite(), step.isDefaultExcludes()));
+        setCallable(new ZipItFileCallable(step.getGlob(), step.getExclude(), step.isOverwrite(), step.isDefaultExcludes(), step.getParallelism(),
+                step.isStore() ? 0 : step.getLevel(), step.isUpdate(), step.isReproducible(), step.getScanThreads()));
         return super.run();
     }
 
+    @Override
+    protected boolean isUpdating() {
+        return step.isUpdate();
+    }
+
     /**
      * Performs the actual zip operation on the slave where the source dir is located.
      *
@@ -76,36 +93,124 @@ public class ZipStepExecution extends CompressStepExecution {
         final boolean overwrite;
 
         final boolean defaultExcludes;
+        final int parallelism;
+        final int level;
+        final boolean update;
+        final boolean reproducible;
+        final int scanThreads;
 
-        public ZipItFileCallable(String glob, String exclude, boolean overwrite, boolean defaultExcludes) {
+        public ZipItFileCallable(String glob, String exclude, boolean overwrite, boolean defaultExcludes, int parallelism, int level) {
+            this(glob, exclude, overwrite, defaultExcludes, parallelism, level, false, false, 1);
+        }
+
+        public ZipItFileCallable(String glob, String exclude, boolean overwrite, boolean defaultExcludes, int parallelism, int level,
+                                 boolean update, boolean reproducible, int scanThreads) {
             this.glob = StringUtils.isBlank(glob) ? "**/*" : glob;
             this.exclude = exclude;
             this.overwrite = overwrite;
             this.defaultExcludes =  defaultExcludes;
+            this.parallelism = parallelism;
+            this.level = level;
+            this.update = update;
+            this.reproducible = reproducible;
+            this.scanThreads = scanThreads;
         }
 
         @Override
         public Integer invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
             Path p = Paths.get(getDestination().getRemote());
-            if (overwrite && Files.exists(p)) {
-                Files.delete(p); //Will throw exception if it fails to delete it
+            if (update && Files.exists(p)) {
+                return update(dir, p);
+            }
+            List<Path> targets = getLocalDestinations();
+            for (Path target : targets) {
+                if (overwrite && Files.exists(target)) {
+                    Files.delete(target); //Will throw exception if it fails to delete it
+                }
             }
 
-            Archiver archiver = ArchiverFactory.ZIP.create(getDestination().write());
-            FileSet fs = Util.createFileSet(dir, glob, exclude);
-            fs.setDefaultexcludes(defaultExcludes);
-            DirectoryScanner scanner = fs.getDirectoryScanner(new org.apache.tools.ant.Project());
+            Archiver archiver;
+            if (parallelism > 1 || level >= 0 || reproducible) {
+                ZipArchiveWriter writer = new ZipArchiveWriter(writeDestination(), parallelism, level);
+                writer.setReproducible(reproducible);
+                archiver = writer;
+            } else {
+                archiver = ArchiverFactory.ZIP.create(writeDestination());
+            }
             try {
-                for (String path : scanner.getIncludedFiles()) {
-                    File toArchive = new File(dir, path).getCanonicalFile();
-                    if (!Files.isSameFile(toArchive.toPath(), p)) {
-                        archiver.visit(toArchive, path);
-                    }
-                }
+                archiveFiles(dir, new GlobMatcher(glob, exclude, defaultExcludes), scanThreads, reproducible, archiver, targets);
             } finally {
                 archiver.close();
             }
             return archiver.countEntries();
         }
+
+        /**
+         * Writes a new version of the zip file next to the existing one, reusing the entries of the unchanged files,
+         * and replaces the existing zip file with it once it is complete.
+         */
+        private int update(File dir, Path p) throws IOException, InterruptedException {
+            Path temp = Files.createTempFile(p.toAbsolutePath().getParent(), p.getFileName().toString(), ".tmp");
+            boolean success = false;
+            try {
+                ZipArchiveWriter archiver;
+                try (ZipFile previous = ZipFile.builder().setFile(p.toFile()).setCharset(Charset.defaultCharset()).get()) {
+                    archiver = new ZipArchiveWriter(Files.newOutputStream(temp), parallelism, level, previous,
+                            Files.getLastModifiedTime(p).toMillis());
+                    archiver.setReproducible(reproducible);
+                    try {
+                        archiveFiles(dir, new GlobMatcher(glob, exclude, defaultExcludes), scanThreads, reproducible, archiver,
+                                Arrays.asList(p, temp));
+                    } finally {
+                        archiver.close();
+                    }
+                }
+                copyAttributes(p, temp);
+                try {
+                    Files.move(temp, p, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, p, StandardCopyOption.REPLACE_EXISTING);
+                }
+                success = true;
+                LOGGER.log(Level.FINE, "Updated {0}, reused {1} of {2} entries",
+                        new Object[] {p, archiver.getEntriesReused(), archiver.countEntries()});
+                return archiver.countEntries();
+            } finally {
+                if (!success) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+
+        /**
+         * Gives the new version of the zip file the permissions, owner and ACL of the one it replaces,
+         * a temporary file is only accessible by its owner.
+         * The owner and group can only be changed with the right privileges, they are left as they are otherwise.
+         */
+        private static void copyAttributes(Path from, Path to) throws IOException {
+            PosixFileAttributeView posix = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+            if (posix != null) {
+                PosixFileAttributes attributes = posix.readAttributes();
+                PosixFileAttributeView target = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+                try {
+                    target.setGroup(attributes.group());
+                    target.setOwner(attributes.owner());
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Could not change the owner of " + to, e);
+                }
+                // after the owner, changing it may clear the set-user-ID bit
+                target.setPermissions(attributes.permissions());
+                return;
+            }
+            AclFileAttributeView acl = Files.getFileAttributeView(from, AclFileAttributeView.class);
+            if (acl != null) {
+                try {
+                    Files.getFileAttributeView(to, FileOwnerAttributeView.class).setOwner(acl.getOwner());
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Could not change the owner of " + to, e);
+                }
+                Files.getFileAttributeView(to, AclFileAttributeView.class).setAcl(acl.getAcl());
+            }
+        }
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.zip;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of testing a zip file with <code>unzip test: true, report: true</code>.
+ */
+public class ZipTestReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @NonNull
+    private final List<String> badEntries;
+    @NonNull
+    private final List<String> errors;
+    private final int entriesVerified;
+    private final long bytesVerified;
+    private final long durationMillis;
+
+    public ZipTestReport(@NonNull List<String> badEntries, @NonNull List<String> errors,
+                         int entriesVerified, long bytesVerified, long durationMillis) {
+        this.badEntries = Collections.unmodifiableList(new ArrayList<>(badEntries));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        this.entriesVerified = entriesVerified;
+        this.bytesVerified = bytesVerified;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return true if no error was found
+     */
+    @Whitelisted
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * The entries that failed the test.
+     * The test stops at the first failure, but entries tested in parallel may have failed as well.
+     *
+     * @return the paths of the entries in the zip file
+     */
+    @Whitelisted @NonNull
+    public List<String> getBadEntries() {
+        return badEntries;
+    }
+
+    /**
+     * @return the messages of the errors that were found
+     */
+    @Whitelisted @NonNull
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the number of files whose checksum was verified
+     */
+    @Whitelisted
+    public int getEntriesVerified() {
+        return entriesVerified;
+    }
+
+    /**
+     * @return the number of uncompressed bytes in the verified files
+     */
+    @Whitelisted
+    public long getBytesVerified() {
+        return bytesVerified;
+    }
+
+    /**
+     * @return how long the test took
+     */
+    @Whitelisted
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return the verified uncompressed bytes per second
+     */
+    @Whitelisted
+    public long getThroughput() {
+        return durationMillis > 0 ? bytesVerified * 1000 / durationMillis : bytesVerified;
+    }
+
+    @Override @Whitelisted @NonNull
+    public String toString() {
+        return (isValid() ? "valid" : "invalid " + badEntries) + ", verified " + entriesVerified + " entries, "
+                + bytesVerified + " bytes in " + durationMillis + " ms";
+    }
+}
@@ -7,3 +7,7 @@ def f = namespace(FormTagLib) as FormTagLib
 f.entry(field: 'file', title: _('File')) {
     f.textbox()
 }
+
+f.entry(field: 'cache', title: _('Use the hash cache of the agent')) {
+    f.checkbox(default: true)
+}
@@ -31,3 +31,7 @@ f.entry(field: 'file', title: _('File')) {
     f.textbox()
 }
 
+
+f.entry(field: 'cache', title: _('Use the hash cache of the agent')) {
+    f.checkbox(default: true)
+}
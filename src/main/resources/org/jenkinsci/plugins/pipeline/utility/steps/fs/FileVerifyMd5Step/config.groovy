@@ -11,3 +11,7 @@ f.entry(field: 'file', title: _('File')) {
 f.entry(field: 'hash', title: _('Hash')) {
     f.textbox()
 }
+
+f.entry(field: 'cache', title: _('Use the hash cache of the agent')) {
+    f.checkbox(default: true)
+}
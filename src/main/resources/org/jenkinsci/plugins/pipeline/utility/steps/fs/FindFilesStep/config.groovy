@@ -32,3 +32,7 @@ f.entry(field: 'glob', title: _('Glob')) {
 f.entry(field: 'excludes', title: _('Exclusions')) {
     f.textbox()
 }
+
+f.entry(field: 'scanThreads', title: _('Scanning threads')) {
+    f.number(clazz: 'positive-number', min: 1, step: 1, default: 1)
+}
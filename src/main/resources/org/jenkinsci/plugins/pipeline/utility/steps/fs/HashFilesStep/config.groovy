@@ -0,0 +1,51 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs.HashFilesStep
+
+def f = namespace(lib.FormTagLib) as lib.FormTagLib
+
+f.entry(field: 'glob', title: _('Glob')) {
+    f.textbox()
+}
+
+f.entry(field: 'excludes', title: _('Exclusions')) {
+    f.textbox()
+}
+
+f.entry(field: 'algorithm', title: _('Algorithm')) {
+    f.textbox(default: 'SHA-256')
+}
+
+f.entry(field: 'parallelDigests', title: _('Compute the hashes of several algorithms in parallel')) {
+    f.checkbox()
+}
+
+f.entry(field: 'threads', title: _('Threads')) {
+    f.number(min: 0, step: 1, default: 0)
+}
+
+f.entry(field: 'cache', title: _('Use the hash cache of the agent')) {
+    f.checkbox(default: true)
+}
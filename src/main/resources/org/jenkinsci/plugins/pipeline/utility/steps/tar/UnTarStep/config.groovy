@@ -38,6 +38,9 @@ f.entry(field: 'dir', title: _('Directory')) {
 f.entry(field: 'glob', title: _('Glob')) {
     f.textbox()
 }
+f.entry(field: 'exclude', title: _('Exclude')) {
+    f.textbox()
+}
 f.entry(field: 'test', title: _('Test the archive')) {
     f.checkbox()
 }
@@ -49,3 +52,23 @@ f.entry(field: 'quiet', title: _('Suppress logging of each file')) {
 f.entry(field: 'keepPermissions', title: _('Extract files with permissions')) {
     f.checkbox()
 }
+
+f.entry(field: 'keepTimestamps', title: _('Extract modification times')) {
+    f.checkbox()
+}
+
+f.entry(field: 'keepLinks', title: _('Extract links')) {
+    f.checkbox()
+}
+
+f.entry(field: 'index', title: _('Use the index')) {
+    f.checkbox()
+}
+
+f.entry(field: 'extractThreads', title: _('Extraction threads')) {
+    f.number(clazz: 'positive-number', min: 1, step: 1, default: 1)
+}
+
+f.entry(field: 'extractMemoryLimit', title: _('Extraction memory limit (MiB)')) {
+    f.number(clazz: 'positive-number', min: 1, step: 1, default: 64)
+}
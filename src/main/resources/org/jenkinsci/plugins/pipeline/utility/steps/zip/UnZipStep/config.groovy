@@ -42,12 +42,36 @@ f.entry(field: 'charset', title: _('Charset')) {
 f.entry(field: 'glob', title: _('Glob')) {
     f.textbox()
 }
+f.entry(field: 'exclude', title: _('Exclude')) {
+    f.textbox()
+}
+f.entry(field: 'extractThreads', title: _('Extraction threads')) {
+    f.number(clazz: 'positive-number', min: 1, step: 1, default: 1)
+}
 f.entry(field: 'test', title: _('Test the archive')) {
     f.checkbox()
 }
+f.entry(field: 'report', title: _('Return a test report')) {
+    f.checkbox()
+}
 f.entry(field: 'read', title: _('Read the file contents')) {
     f.checkbox()
 }
+f.entry(field: 'readLimit', title: _('Read limit per file')) {
+    f.number(clazz: 'non-negative-number', min: 0, step: 1, default: 0)
+}
+f.entry(field: 'readTotalLimit', title: _('Read limit for all files')) {
+    f.number(clazz: 'non-negative-number', min: 0, step: 1, default: 67108864)
+}
+f.entry(field: 'truncate', title: _('Truncate content over the limits')) {
+    f.checkbox()
+}
+f.entry(field: 'binary', title: _('Binary files')) {
+    f.textbox()
+}
+f.entry(field: 'list', title: _('List the entries')) {
+    f.checkbox()
+}
 f.entry(field: 'quiet', title: _('Suppress logging of each file')) {
     f.checkbox()
 }
@@ -41,10 +41,22 @@ f.entry(field: 'exclude', title: _('Exclude')) {
     f.textbox()
 }
 
+f.entry(field: 'files', title: _('Files')) {
+    f.textarea()
+}
+
 f.entry(field: 'archive', title: _('Archive as artifact')) {
     f.checkbox()
 }
 
+f.entry(field: 'streamArchive', title: _('Stream to the artifacts')) {
+    f.checkbox()
+}
+
+f.entry(field: 'keepInWorkspace', title: _('Keep streamed archive in workspace')) {
+    f.checkbox()
+}
+
 f.entry(field: 'overwrite', title: _('Overwrite')) {
     f.checkbox()
 }
@@ -52,3 +64,27 @@ f.entry(field: 'overwrite', title: _('Overwrite')) {
 f.entry(field: 'defaultExcludes', title: _('Default Ant Excludes')) {
     f.checkbox()
 }
+
+f.entry(field: 'parallelism', title: _('Compression threads')) {
+    f.number(clazz: 'positive-number', min: 1, step: 1, default: 1)
+}
+
+f.entry(field: 'store', title: _('Store uncompressed')) {
+    f.checkbox()
+}
+
+f.entry(field: 'level', title: _('Compression level')) {
+    f.number(clazz: 'number', min: -1, max: 9, step: 1, default: -1)
+}
+
+f.entry(field: 'update', title: _('Update')) {
+    f.checkbox()
+}
+
+f.entry(field: 'reproducible', title: _('Reproducible')) {
+    f.checkbox()
+}
+
+f.entry(field: 'scanThreads', title: _('Scanning threads')) {
+    f.number(clazz: 'positive-number', min: 1, step: 1, default: 1)
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares writing many small extracted entries through {@link FilePath} with {@link LocalDestination}.
+ * The score is in entries per second.
+ *
+ * @see BenchmarkRunner
+ */
+@JmhBenchmark
+@State(Scope.Thread)
+public class ExtractionBenchmark {
+    private static final int ENTRIES = 2000;
+    private static final int DIRECTORIES = 50;
+
+    private final byte[] content = "Hello World!\n".getBytes(StandardCharsets.UTF_8);
+    private String[] names;
+    private File destination;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        destination = Files.createTempDirectory("extraction-benchmark").toFile();
+        names = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            names[i] = "dir" + (i % DIRECTORIES) + "/sub/file" + i + ".txt";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(destination);
+    }
+
+    /**
+     * The way the extraction steps used to write every entry.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void filePath() throws IOException, InterruptedException {
+        Callable callable = new Callable();
+        callable.setDestination(new FilePath(destination));
+        for (String name : names) {
+            FilePath f = callable.getDestination().child(name);
+            if (!callable.isDescendantOfDestination(f)) {
+                throw new FileNotFoundException(f.getRemote() + " is out of bounds!");
+            }
+            try (OutputStream out = f.write()) {
+                out.write(content);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void localDestination() throws IOException {
+        LocalDestination local = new LocalDestination(destination, false);
+        for (String name : names) {
+            Path f = local.resolve(name);
+            try (OutputStream out = local.newOutputStream(f)) {
+                out.write(content);
+            }
+        }
+    }
+
+    private static class Callable extends AbstractFileCallable<Void> {
+        @Override
+        public Void invoke(File f, VirtualChannel channel) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.jenkinsci.plugins.pipeline.utility.steps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+import org.junit.jupiter.api.Test;
+
+class GlobMatcherTest {
+
+    @Test
+    void matchesLikeAnt() {
+        String[] patterns = {"**", "**/*", "*.txt", "a/**", "a/", "a/b.txt", "a/*/c", "**/b.txt", "a/**/c.txt",
+                "a", "x?z/*", "a*/b", "**/a/**"};
+        String[] paths = {"a", "a/", "a/b.txt", "a/b", "a/x/c", "a/x/y/c.txt", "a/c.txt", "b.txt", "xyz/q", "ab/b",
+                "aa", "a/b/", "x/a/y", "a//b.txt"};
+        for (String pattern : patterns) {
+            String normalized = (pattern.endsWith("/") ? pattern + "**" : pattern).replace('/', File.separatorChar);
+            GlobMatcher matcher = new GlobMatcher(pattern, null, false);
+            for (String path : paths) {
+                assertEquals(SelectorUtils.matchPath(normalized, path.replace('/', File.separatorChar)), matcher.matches(path),
+                        pattern + " against " + path);
+            }
+        }
+    }
+
+    @Test
+    void multiplePatterns() {
+        GlobMatcher matcher = new GlobMatcher("**/*.txt, *.dat", "two/, **/skip.*", false);
+        assertTrue(matcher.matches("hello.txt"));
+        assertTrue(matcher.matches("one/hello.txt"));
+        assertTrue(matcher.matches("hello.dat"));
+        assertFalse(matcher.matches("one/hello.dat"));
+        assertFalse(matcher.matches("two/hello.txt"));
+        assertFalse(matcher.matches("one/skip.txt"));
+    }
+
+    @Test
+    void compiledMatchersAreCached() {
+        assertSame(GlobMatcher.of("**/*.txt", "two/", true), GlobMatcher.of("**/*.txt", "two/", true));
+        assertNotSame(GlobMatcher.of("**/*.txt", "two/", true), GlobMatcher.of("**/*.txt", "two/", false));
+    }
+}
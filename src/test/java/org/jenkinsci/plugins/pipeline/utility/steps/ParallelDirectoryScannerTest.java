@@ -0,0 +1,123 @@
+package org.jenkinsci.plugins.pipeline.utility.steps;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import hudson.Util;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.apache.tools.ant.types.FileSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParallelDirectoryScannerTest {
+
+    @TempDir
+    private Path dir;
+
+    @BeforeEach
+    void createTree() throws IOException {
+        String[] dirs = {"", "src/", "src/main/", "src/main/java/", "target/", "target/classes/", ".git/", "docs/", "a b/"};
+        String[] files = {"readme.md", "App.java", "App.class", "notes.txt", "b.txt"};
+        for (String d : dirs) {
+            for (String f : files) {
+                Path file = dir.resolve(d + f);
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, d + f);
+            }
+        }
+        Files.createDirectories(dir.resolve("b"));
+        Files.writeString(dir.resolve("b/a.txt"), "sorted after b.txt");
+    }
+
+    @Test
+    void selectsTheSameFilesAsAnt() throws Exception {
+        String[][] patterns = {
+                {"**/*", null},
+                {"**/*.java", null},
+                {"src/", "**/*.class"},
+                {"*.md, src/**/*.txt", null},
+                {"**/main/**", "target/, docs/"},
+                {"a b/*", ""},
+        };
+        for (String[] pattern : patterns) {
+            for (boolean defaultExcludes : new boolean[] {true, false}) {
+                String[] expected = antScan(pattern[0], pattern[1], defaultExcludes);
+                GlobMatcher matcher = new GlobMatcher(pattern[0], pattern[1], defaultExcludes);
+                String message = Arrays.toString(pattern) + " defaultExcludes: " + defaultExcludes;
+
+                assertArrayEquals(expected, new ParallelDirectoryScanner(dir.toFile(), matcher, 1).getIncludedFiles(),
+                        "same files in the same order on one thread for " + message);
+
+                String[] parallel = new ParallelDirectoryScanner(dir.toFile(), matcher, 4).getIncludedFiles();
+                Arrays.sort(parallel);
+                assertArrayEquals(expected, parallel, "same files on several threads for " + message);
+            }
+        }
+    }
+
+    @Test
+    void linkToParentIsNotFollowed() throws Exception {
+        Files.createSymbolicLink(dir.resolve("src/main/loop"), dir.resolve("src"));
+        String[] files = new ParallelDirectoryScanner(dir.toFile(), new GlobMatcher("src/**/*.md", null, true), 4).getIncludedFiles();
+        Arrays.sort(files);
+        assertEquals(Arrays.asList("src" + File.separator + "main" + File.separator + "java" + File.separator + "readme.md",
+                        "src" + File.separator + "main" + File.separator + "readme.md",
+                        "src" + File.separator + "readme.md"),
+                Arrays.asList(files));
+    }
+
+    @Test
+    void stopsWhenTheVisitorFails() {
+        ParallelDirectoryScanner scanner = new ParallelDirectoryScanner(dir.toFile(), new GlobMatcher(null, null, true), 4);
+        IOException thrown = assertThrows(IOException.class, () -> scanner.scan(path -> {
+            throw new IOException("failed on " + path);
+        }));
+        assertTrue(thrown.getMessage().startsWith("failed on "));
+    }
+
+    @Test
+    void absoluteIncludeIsRejectedOnSeveralThreads() {
+        GlobMatcher matcher = new GlobMatcher(dir.resolve("src").toAbsolutePath() + "/**", null, true);
+        IOException thrown = assertThrows(IOException.class,
+                () -> new ParallelDirectoryScanner(dir.toFile(), matcher, 4).getIncludedFiles());
+        assertTrue(thrown.getMessage().startsWith("Expecting Ant GLOB pattern"), thrown.getMessage());
+    }
+
+    @Test
+    void unlistableDirectoryIsTakenForAFile() throws Exception {
+        assumeTrue(Files.getFileAttributeView(dir, PosixFileAttributeView.class) != null, "needs POSIX permissions");
+        Path locked = dir.resolve("src/main");
+        Files.setPosixFilePermissions(locked, EnumSet.noneOf(PosixFilePermission.class));
+        try {
+            assumeTrue(!Files.isReadable(locked), "the directory can still be read, probably running as root");
+            for (String glob : new String[] {"**/*", "src/**", "**/main"}) {
+                GlobMatcher matcher = new GlobMatcher(glob, null, true);
+                String[] expected = antScan(glob, null, true);
+                assertArrayEquals(expected, new ParallelDirectoryScanner(dir.toFile(), matcher, 1).getIncludedFiles(), glob);
+                String[] parallel = new ParallelDirectoryScanner(dir.toFile(), matcher, 4).getIncludedFiles();
+                Arrays.sort(parallel);
+                assertArrayEquals(expected, parallel, glob);
+            }
+        } finally {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+
+    private String[] antScan(String glob, String exclude, boolean defaultExcludes) {
+        FileSet fs = Util.createFileSet(dir.toFile(), glob, exclude);
+        fs.setDefaultexcludes(defaultExcludes);
+        return fs.getDirectoryScanner(new org.apache.tools.ant.Project()).getIncludedFiles();
+    }
+}
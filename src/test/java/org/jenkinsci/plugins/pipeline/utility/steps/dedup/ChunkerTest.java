@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ChunkerTest {
+
+    private static List<String> chunks(byte[] data) {
+        List<String> chunks = new ArrayList<>();
+        int offset = 0;
+        while (offset < data.length) {
+            int length = Chunker.cut(data, offset, Math.min(data.length - offset, Chunker.MAX_SIZE));
+            assertTrue(length <= Chunker.MAX_SIZE);
+            assertTrue(length >= Chunker.MIN_SIZE || offset + length == data.length);
+            chunks.add(length + ":" + Arrays.hashCode(Arrays.copyOfRange(data, offset, offset + length)));
+            offset += length;
+        }
+        return chunks;
+    }
+
+    @Test
+    void boundariesFollowTheContent() {
+        byte[] data = new byte[8 * 1024 * 1024];
+        new Random(42).nextBytes(data);
+        byte[] inserted = new byte[data.length + 100];
+        System.arraycopy(data, 0, inserted, 0, 4 * 1024 * 1024);
+        System.arraycopy(data, 4 * 1024 * 1024, inserted, 4 * 1024 * 1024 + 100, 4 * 1024 * 1024);
+
+        List<String> before = chunks(data);
+        assertEquals(before, chunks(data));
+        Set<String> contents = new HashSet<>(before);
+        int changed = 0;
+        for (String chunk : chunks(inserted)) {
+            if (!contents.contains(chunk)) {
+                changed++;
+            }
+        }
+        // only the chunk with the inserted bytes differs, the boundaries after it are found again
+        assertTrue(changed <= 2, changed + " chunks changed");
+    }
+}
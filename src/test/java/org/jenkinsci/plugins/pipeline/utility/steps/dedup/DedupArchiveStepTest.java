@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import hudson.model.Label;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.StepConfigTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * Tests for {@link DedupArchiveStep}.
+ */
+@WithJenkins
+class DedupArchiveStepTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        j = rule;
+        j.createOnlineSlave(Label.get("slaves"));
+    }
+
+    @Test
+    void configRoundTrip() throws Exception {
+        DedupArchiveStep step = new DedupArchiveStep("target/cache.dedup");
+        step.setDir("base/");
+        step.setGlob("**/*.jar");
+        step.setExclude("**/*.txt");
+        step.setChunkStore("chunks");
+        step.setArchive(true);
+        step.setOverwrite(true);
+        step.setReproducible(true);
+        step.setScanThreads(4);
+        step.setFiles("a/one.txt\nb/two.txt");
+
+        DedupArchiveStep step2 = new StepConfigTester(j).configRoundTrip(step);
+        j.assertEqualDataBoundBeans(step, step2);
+    }
+
+    @Test
+    void unchangedChunksAreReused() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'big.txt', text: '0123456789abcdef' * 262144
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                          }
+                          dedupArchive file: 'first.dedup', dir: 'src', chunkStore: 'chunks'
+                          dedupArchive file: 'second.dedup', dir: 'src', chunkStore: 'chunks'
+                          dedupArchive file: 'all.dedup', chunkStore: 'chunks'
+                          dedupArchive file: 'shared.dedup', dir: 'src'
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compressed 2 entries.", run);
+        j.assertLogContains("Stored 0 new chunks (0 bytes) and reused", run);
+        // the chunk store in the workspace is not archived itself
+        j.assertLogContains("Compressed 4 entries.", run);
+        j.assertLogContains("pipeline-utility-steps", run);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import hudson.model.Label;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.StepConfigTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * Tests for {@link DedupExtractStep}.
+ */
+@WithJenkins
+class DedupExtractStepTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        j = rule;
+        j.createOnlineSlave(Label.get("slaves"));
+    }
+
+    @Test
+    void configRoundTrip() throws Exception {
+        DedupExtractStep step = new DedupExtractStep("target/cache.dedup");
+        step.setDir("base/");
+        step.setGlob("**/*.jar");
+        step.setExclude("old/**");
+        step.setChunkStore("chunks");
+        step.setQuiet(true);
+        step.setExtractThreads(4);
+
+        DedupExtractStep step2 = new StepConfigTester(j).configRoundTrip(step);
+        j.assertEqualDataBoundBeans(step, step2);
+        assertFalse(step2.isTest());
+    }
+
+    @Test
+    void extract() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'a/hello.txt', text: 'Hello World!'
+                            writeFile file: 'a/big.txt', text: '0123456789abcdef' * 262144
+                            writeFile file: 'b/other.txt', text: 'Other'
+                          }
+                          dedupArchive file: 'cache.dedup', dir: 'src'
+                          dir('out') {
+                            dedupExtract file: '../cache.dedup', glob: 'a/**'
+                            echo "Reading: ${readFile 'a/hello.txt'}"
+                            echo "Length: ${readFile('a/big.txt').length()}"
+                            echo "Other exists: ${fileExists 'b/other.txt'}"
+                          }
+                          dir('parallel') {
+                            dedupExtract file: '../cache.dedup', quiet: true, extractThreads: 4
+                            echo "Reading: ${readFile 'b/other.txt'}"
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Extracting: a/hello.txt ->", run);
+        j.assertLogNotContains("Extracting: b/other.txt ->", run);
+        j.assertLogContains("Reading: Hello World!", run);
+        j.assertLogContains("Length: 4194304", run);
+        j.assertLogContains("Other exists: false", run);
+        j.assertLogContains("Extracted: 3 files", run);
+        j.assertLogContains("Reading: Other", run);
+    }
+
+    @Test
+    void testMissingChunks() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'src/hello.txt', text: 'Hello World!'
+                          dedupArchive file: 'cache.dedup', dir: 'src', chunkStore: 'chunks'
+                          def valid = dedupExtract file: 'cache.dedup', chunkStore: 'chunks', test: true
+                          echo "Valid: ${valid}"
+                          dir('chunks') {
+                            deleteDir()
+                          }
+                          valid = dedupExtract file: 'cache.dedup', chunkStore: 'chunks', test: true
+                          echo "Valid without chunks: ${valid}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Valid: true", run);
+        j.assertLogContains("Checked 1 chunks of 1 files", run);
+        j.assertLogContains("is missing from", run);
+        j.assertLogContains("Valid without chunks: false", run);
+    }
+}
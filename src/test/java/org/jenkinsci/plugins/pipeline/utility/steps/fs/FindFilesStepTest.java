@@ -28,6 +28,7 @@ import hudson.model.Label;
 import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.StepConfigTester;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
@@ -182,4 +183,35 @@ class FindFilesStepTest {
         j.assertLogNotContains("F: b/11.txt", run);
         j.assertLogNotContains("F: b/12.txt", run);
     }
+
+    @Test
+    void configRoundTrip() throws Exception {
+        FindFilesStep step = new FindFilesStep();
+        step.setGlob("**/*.txt");
+        step.setExcludes("b/*.txt");
+        step.setScanThreads(4);
+
+        FindFilesStep step2 = new StepConfigTester(j).configRoundTrip(step);
+        j.assertEqualDataBoundBeans(step, step2);
+    }
+
+    @Test
+    void listAllOnSeveralThreads() throws Exception {
+        String flow = CODE.replace(
+                "%TESTCODE%",
+                """
+                        def files = findFiles(glob: '**/*.txt', excludes: 'b/*.txt', scanThreads: 4)
+                        echo "${files.length} files"
+                        def paths = []
+                        for(int i = 0; i < files.length; i++) {
+                          paths << files[i].path.replace('\\\\', '/')
+                        }
+                        echo "F: ${paths.join(', ')}\"""");
+        p.setDefinition(new CpsFlowDefinition(flow, true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+
+        j.assertLogContains("10 files", run);
+        j.assertLogContains("F: 1.txt, 2.txt, a/3.txt, a/4.txt, a/aa/5.txt, a/aa/6.txt, a/ab/7.txt, a/ab/8.txt, "
+                + "a/ab/aba/10.txt, a/ab/aba/9.txt", run);
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs;
+
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Formatter;
+import java.util.Random;
+
+/**
+ * Compares hashing a file the way {@link ComputeHashCallable} used to,
+ * through a 1 KiB buffer and {@link Formatter}, with {@link FileHasher}.
+ * The primary score is in files per second, the <code>megabytes</code> counter in MiB per second.
+ * The 64 MiB file is large enough to be memory mapped.
+ *
+ * @see org.jenkinsci.plugins.pipeline.utility.steps.BenchmarkRunner
+ */
+@JmhBenchmark
+@State(Scope.Thread)
+public class HashBenchmark {
+    private static final String ALGORITHM = "SHA-256";
+
+    @Param({"1024", "1048576", "67108864"})
+    public long size;
+
+    private File file;
+
+    /**
+     * Counts the hashed MiB, reported per second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+        public double megabytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("hash-benchmark", ".bin").toFile();
+        byte[] block = new byte[(int) Math.min(size, 1024 * 1024)];
+        new Random(size).nextBytes(block);
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            for (long written = 0; written < size; written += block.length) {
+                out.write(block, 0, (int) Math.min(block.length, size - written));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * The way {@link ComputeHashCallable#hashOfFile(File)} used to hash.
+     */
+    @Benchmark
+    public String legacy(Throughput throughput) throws IOException, NoSuchAlgorithmException {
+        MessageDigest messageDigest = MessageDigest.getInstance(ALGORITHM);
+        try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+            byte[] buffer = new byte[1024];
+            for (int read; (read = is.read(buffer)) != -1; ) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
+        String hash;
+        try (Formatter formatter = new Formatter()) {
+            for (byte b : messageDigest.digest()) {
+                formatter.format("%02x", b);
+            }
+            hash = formatter.toString();
+        }
+        throughput.megabytes += size / (1024.0 * 1024.0);
+        return hash;
+    }
+
+    @Benchmark
+    public String engine(Throughput throughput) throws IOException, NoSuchAlgorithmException {
+        String hash = ComputeHashCallable.hashesOfFile(file, new String[] {ALGORITHM})[0];
+        throughput.megabytes += size / (1024.0 * 1024.0);
+        return hash;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HashCacheTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void savesSoonInBatches() throws IOException {
+        Path location = dir.resolve("cache");
+        HashCache cache = new HashCache(location, 8L * 1024 * 1024, TimeUnit.DAYS.toMillis(30));
+        Path file = dir.resolve("f.txt");
+        Files.writeString(file, "abc");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1000000000000L));
+        BasicFileAttributes attributes = HashCache.attributes(file);
+
+        cache.put(file, attributes, "SHA-256", "hash");
+        cache.saveSoon();
+        assertFalse(Files.exists(location), "a single change waits for more");
+
+        for (int i = 1; i < HashCache.SAVE_BATCH; i++) {
+            cache.put(file, attributes, "algorithm" + i, "hash" + i);
+        }
+        cache.saveSoon();
+        assertTrue(Files.exists(location), "a full batch is written right away");
+
+        HashCache loaded = new HashCache(location, 8L * 1024 * 1024, TimeUnit.DAYS.toMillis(30));
+        assertEquals("hash", loaded.get(file, attributes, "SHA-256"));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.fs;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import hudson.FilePath;
+import hudson.model.Label;
+import hudson.slaves.DumbSlave;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.StepConfigTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * Tests for {@link HashFilesStep}.
+ */
+@WithJenkins
+class HashFilesStepTest {
+
+    private JenkinsRule j;
+    private DumbSlave agent;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        j = rule;
+        agent = j.createOnlineSlave(Label.get("slaves"));
+    }
+
+    @Test
+    void configRoundTrip() throws Exception {
+        HashFilesStep step = new HashFilesStep("**/*.jar");
+        step.setExcludes("old/**");
+        step.setAlgorithm("SHA-512");
+        step.setParallelDigests(true);
+        step.setThreads(4);
+        step.setCache(false);
+
+        HashFilesStep step2 = new StepConfigTester(j).configRoundTrip(step);
+        j.assertEqualDataBoundBeans(step, step2);
+    }
+
+    @Test
+    void unknownAlgorithm() throws Exception {
+        HashFilesStep step = new HashFilesStep("**/*.jar");
+        assertThrows(IllegalArgumentException.class, () -> step.setAlgorithm("SHA-7"));
+    }
+
+    @Test
+    void hashFiles() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('test') {
+                            writeFile file: 'a/f.txt', text: 'abc', encoding: 'UTF-8'
+                            touch 'b/empty.txt'
+                            writeFile file: 'b/skip.txt', text: 'skip'
+                            writeFile file: 'c.log', text: 'log'
+                            def hashes = hashFiles glob: '**/*.txt', excludes: '**/skip.txt'
+                            assert hashes.size() == 2
+                            assert hashes['a/f.txt'] == 'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad'
+                            assert hashes['b/empty.txt'] == 'e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855'
+                            hashes = hashFiles glob: 'a/*', algorithm: 'MD5', threads: 1
+                            assert hashes == ['a/f.txt': '900150983cd24fb0d6963f7d28e17f72']
+                            assert hashFiles(glob: 'nothing/**').isEmpty()
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Hashed 2 files (3 bytes) with SHA-256", run);
+    }
+
+    @Test
+    void severalAlgorithms() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'f.txt', text: 'abc', encoding: 'UTF-8'
+                          for (def parallel : [false, true]) {
+                            def hashes = hashFiles glob: 'f.txt', algorithms: ['MD5', 'SHA-1', 'SHA-256'], parallelDigests: parallel
+                            assert hashes['f.txt'] == ['MD5': md5('f.txt'), 'SHA-1': sha1('f.txt'), 'SHA-256': sha256('f.txt')]
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Hashed 1 files (3 bytes) with MD5, SHA-1, SHA-256", run);
+    }
+
+    @Test
+    void manyFilesInParallel() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          for (int i = 0; i < 50; i++) {
+                            writeFile file: "many/f${i}.txt", text: 'abc'
+                          }
+                          def hashes = hashFiles glob: 'many/*.txt', threads: 4
+                          assert hashes.size() == 50
+                          def expected = sha256 'many/f0.txt'
+                          for (def hash : hashes.values()) {
+                            assert hash == expected
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Hashed 50 files (150 bytes)", run);
+    }
+
+    @Test
+    void cachedHashes() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'f.txt', text: 'abc', encoding: 'UTF-8'
+                          touch file: 'f.txt', timestamp: 1000000000000
+                          assert hashFiles(glob: 'f.txt') == ['f.txt': 'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad']
+                          assert hashFiles(glob: 'f.txt') == ['f.txt': 'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad']
+                          assert sha256('f.txt') == 'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad'
+                          writeFile file: 'f.txt', text: 'abcd', encoding: 'UTF-8'
+                          touch file: 'f.txt', timestamp: 1000000000000
+                          assert hashFiles(glob: 'f.txt') == ['f.txt': '88d4266fd4e6338d13b845fcf289579d209c897823b9217da3e161936f031589']
+                          assert sha256('f.txt') == '88d4266fd4e6338d13b845fcf289579d209c897823b9217da3e161936f031589'
+                          verifySha256(file: 'f.txt', hash: '88d4266fd4e6338d13b845fcf289579d209c897823b9217da3e161936f031589', cache: false)
+                          assert hashFiles(glob: 'f.txt', cache: false) == ['f.txt': '88d4266fd4e6338d13b845fcf289579d209c897823b9217da3e161936f031589']
+                        }""",
+                true));
+        j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        assertTrue(agent.getRootPath().child(HashCache.DEFAULT_LOCATION).exists());
+    }
+
+    @Test
+    void cachedHashIsUsed() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        FilePath ws = j.jenkins.getWorkspaceFor(p);
+        Path file = Paths.get(ws.child("f.txt").getRemote());
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "abc");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1000000000000L));
+        // the built-in node runs in this JVM, so this is the cache the steps use
+        Path real = file.toRealPath();
+        HashCache.get(HashCache.locate(ws)).put(real, HashCache.attributes(real), "SHA-256", "doctored");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('built-in') {
+                          echo "sha256: ${sha256 'f.txt'}"
+                          echo "hashFiles: ${hashFiles(glob: 'f.txt')['f.txt']}"
+                          echo "sha256 uncached: ${sha256 file: 'f.txt', cache: false}"
+                          echo "hashFiles uncached: ${hashFiles(glob: 'f.txt', cache: false)['f.txt']}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("sha256: doctored", run);
+        j.assertLogContains("hashFiles: doctored", run);
+        j.assertLogContains("sha256 uncached: ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", run);
+        j.assertLogContains("hashFiles uncached: ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", run);
+
+        // another file with the same size and modification time
+        assumeTrue(HashCache.attributes(real).fileKey() != null, "needs file keys to tell the files apart");
+        Path other = file.resolveSibling("other.txt");
+        Files.writeString(other, "xyz");
+        Files.setLastModifiedTime(other, FileTime.fromMillis(1000000000000L));
+        Files.move(other, file, StandardCopyOption.REPLACE_EXISTING);
+        run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("sha256: 3608bca1e44ea6c4d268eb6db02260269892c0b42b86bbf1e77a6fa16c3c9282", run);
+        j.assertLogContains("hashFiles: 3608bca1e44ea6c4d268eb6db02260269892c0b42b86bbf1e77a6fa16c3c9282", run);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.repack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.Label;
+import hudson.model.Result;
+import org.jenkinsci.plugins.pipeline.utility.steps.tar.TarCompression;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.StepConfigTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * Tests for {@link RepackStep}.
+ */
+@WithJenkins
+class RepackStepTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        j = rule;
+        j.createOnlineSlave(Label.get("slaves"));
+    }
+
+    @Test
+    void configRoundTrip() throws Exception {
+        RepackStep step = new RepackStep("target/my.zip", "target/my.tar.zst");
+        step.setGlob("**/*.jar");
+        step.setExclude("old/**");
+        step.setFormat("tar");
+        step.setCompression("zstd");
+        step.setLevel(9);
+        step.setOverwrite(true);
+        step.setQuiet(true);
+
+        RepackStep step2 = new StepConfigTester(j).configRoundTrip(step);
+        j.assertEqualDataBoundBeans(step, step2);
+    }
+
+    @Test
+    void formatFromName() throws Exception {
+        RepackStep step = new RepackStep("in.tgz", "out.jar");
+        assertTrue(step.isZip());
+        step = new RepackStep("in.zip", "out.tar.zst");
+        assertFalse(step.isZip());
+        assertEquals(TarCompression.ZSTD, step.getCompressionCodec());
+        step = new RepackStep("in.zip", "out.tgz");
+        assertEquals(TarCompression.GZIP, step.getCompressionCodec());
+        step.setCompression("none");
+        assertEquals(TarCompression.NONE, step.getCompressionCodec());
+        step.setFormat("zip");
+        assertTrue(step.isZip());
+        RepackStep invalid = step;
+        assertThrows(IllegalArgumentException.class, () -> invalid.setFormat("rar"));
+    }
+
+    @Test
+    void levelOutOfRange() throws Exception {
+        RepackStep step = new RepackStep("in.zip", "out.zip");
+        step.setLevel(-1);
+        step.setLevel(0);
+        step.setLevel(9);
+        assertEquals(9, step.getLevel());
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> step.setLevel(10));
+        assertEquals("Invalid compression level: 10, expected 0 to 9, or -1 for the default", thrown.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> step.setLevel(-2));
+        assertEquals(9, step.getLevel());
+    }
+
+    @Test
+    void zipToTgzAndBack() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'a/hello.txt', text: 'Hello World!'
+                            writeFile file: 'a/b/other.txt', text: 'Other'
+                            writeFile file: 'build.log', text: 'Log'
+                          }
+                          zip zipFile: 'in.zip', dir: 'src'
+                          def count = repack file: 'in.zip', to: 'out.tgz', glob: '**/*.txt'
+                          echo "Count: ${count}"
+                          dir('tgz') {
+                            untar file: '../out.tgz'
+                            echo "Reading: ${readFile 'a/hello.txt'}"
+                            echo "Log exists: ${fileExists 'build.log'}"
+                          }
+                          repack file: 'out.tgz', to: 'back.zip', quiet: true
+                          def back = unzip zipFile: 'back.zip', read: true
+                          echo "Back: ${back['a/b/other.txt']}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Repacking: a/hello.txt", run);
+        j.assertLogNotContains("Repacking: build.log", run);
+        j.assertLogContains("Count: 2", run);
+        j.assertLogContains("Reading: Hello World!", run);
+        j.assertLogContains("Log exists: false", run);
+        j.assertLogContains("Back: Other", run);
+    }
+
+    @Test
+    void zipToZipCopiesRaw() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'src/hello.txt', text: 'Hello World!'
+                          writeFile file: 'src/skip.log', text: 'Log'
+                          zip zipFile: 'in.zip', dir: 'src'
+                          repack file: 'in.zip', to: 'out.jar', exclude: '*.log'
+                          def content = unzip zipFile: 'out.jar', read: true
+                          echo "Entries: ${content.keySet()}"
+                          echo "Reading: ${content['hello.txt']}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Entries: [hello.txt]", run);
+        j.assertLogContains("Reading: Hello World!", run);
+    }
+
+    @Test
+    void existingTargetShouldFail() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'src/hello.txt', text: 'Hello World!'
+                          zip zipFile: 'in.zip', dir: 'src'
+                          writeFile file: 'out.tgz', text: 'Existing'
+                          repack file: 'in.zip', to: 'out.tgz'
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0));
+        j.assertLogContains("out.tgz exists.", run);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TarCompressionTest {
+
+    @Test
+    void everyCodecIsAvailable() {
+        for (TarCompression compression : TarCompression.values()) {
+            assertTrue(compression.isAvailable(), compression.name());
+        }
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        byte[] data = new byte[3 * 1024 * 1024];
+        Random random = new Random(42);
+        // half random, half repetitive, so the codecs have something to compress
+        random.nextBytes(data);
+        Arrays.fill(data, data.length / 2, data.length, (byte) 'x');
+        for (TarCompression compression : TarCompression.values()) {
+            for (int level : new int[] {-1, 1}) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (OutputStream out = compression.createOutputStream(compressed, level, 1)) {
+                    out.write(data);
+                }
+                byte[] bytes = compressed.toByteArray();
+                assertEquals(compression, TarCompression.detect(bytes, Math.min(bytes.length, TarCompression.SIGNATURE_LENGTH)),
+                        compression.name());
+                try (InputStream in = compression.createInputStream(new ByteArrayInputStream(bytes))) {
+                    assertArrayEquals(data, in.readAllBytes(), compression.name() + " at level " + level);
+                }
+            }
+        }
+    }
+
+    @Test
+    void concatenatedStreams() throws IOException {
+        for (TarCompression compression : TarCompression.values()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            for (String part : new String[] {"Hello ", "World!"}) {
+                ByteArrayOutputStream member = new ByteArrayOutputStream();
+                try (OutputStream out = compression.createOutputStream(member, -1, 1)) {
+                    out.write(part.getBytes());
+                }
+                member.writeTo(compressed);
+            }
+            try (InputStream in = compression.createInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+                assertEquals("Hello World!", new String(in.readAllBytes()), compression.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.pipeline.utility.steps.tar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TarIndexTest {
+
+    @TempDir
+    private Path dir;
+    private Path archive;
+
+    @BeforeEach
+    void writeArchive() throws IOException {
+        archive = dir.resolve("a.tgz");
+        Files.write(archive, new byte[4096]);
+        TarIndex index = new TarIndex(TarCompression.GZIP);
+        index.addMember(0, 0);
+        index.addMember(100, 2048);
+        index.addEntry("a.txt", 0);
+        index.addEntry("b.txt", 2048);
+        index.setArchive(archive);
+        index.write(TarIndex.pathOf(archive));
+    }
+
+    @Test
+    void readsTheIndexOfTheArchive() throws IOException {
+        TarIndex index = TarIndex.readFor(archive);
+        assertNotNull(index);
+        assertEquals(TarCompression.GZIP, index.getCompression());
+        assertEquals(2, index.size());
+        assertEquals("b.txt", index.getName(1));
+        assertEquals(2048, index.getOffset(1));
+        assertEquals(Arrays.toString(new long[] {100, 2048}), Arrays.toString(index.getCheckpoint(3072)));
+    }
+
+    @Test
+    void ignoresTheIndexOfAnOlderArchive() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(archive);
+        Files.setLastModifiedTime(archive, FileTime.fromMillis(modified.toMillis() + 2000));
+        assertNull(TarIndex.readFor(archive), "same length, but modified later");
+
+        Files.setLastModifiedTime(archive, modified);
+        Files.write(archive, new byte[8192]);
+        Files.setLastModifiedTime(archive, modified);
+        assertNull(TarIndex.readFor(archive), "same modification time, but a different length");
+    }
+
+    @Test
+    void ignoresADamagedIndex() throws IOException {
+        Path path = TarIndex.pathOf(archive);
+        byte[] valid = Files.readAllBytes(path);
+
+        Files.write(path, Arrays.copyOf(valid, valid.length - 5));
+        assertNull(TarIndex.readFor(archive), "truncated");
+
+        writeHeader(path, Integer.MAX_VALUE);
+        assertNull(TarIndex.readFor(archive), "too many members for the length of the index");
+
+        writeHeader(path, -1);
+        assertNull(TarIndex.readFor(archive), "a negative member count");
+    }
+
+    private void writeHeader(Path path, int memberCount) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeUTF("pipeline-utility-steps tar index");
+            out.writeInt(2);
+            out.writeUTF(TarCompression.GZIP.name());
+            out.writeLong(Files.size(archive));
+            out.writeLong(Files.getLastModifiedTime(archive).toMillis());
+            out.writeInt(memberCount);
+            out.write(new byte[64]);
+        }
+    }
+}
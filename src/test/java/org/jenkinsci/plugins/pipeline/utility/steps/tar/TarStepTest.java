@@ -69,6 +69,16 @@ class TarStepTest {
         step.setArchive(true);
         step.setCompress(true);
         step.setOverwrite(true);
+        step.setCompressionThreads(4);
+        step.setCompression("bzip2");
+        step.setLevel(9);
+        step.setStore(true);
+        step.setStreamArchive(true);
+        step.setKeepInWorkspace(true);
+        step.setReproducible(true);
+        step.setScanThreads(4);
+        step.setIndex(true);
+        step.setFiles("a/one.txt\nb/two.txt");
 
         TarStep step2 = new StepConfigTester(j).configRoundTrip(step);
         j.assertEqualDataBoundBeans(step, step2);
@@ -93,6 +103,78 @@ class TarStepTest {
         verifyArchivedHello(run, "");
     }
 
+    @Test
+    void streamedArchivedTar() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('hello') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                          }
+                          tar file: 'hello.tar', dir: 'hello', archive: true, streamArchive: true, compress: false
+                          echo "In workspace: ${fileExists('hello.tar')}"
+                          tar file: 'hello.tar', dir: 'hello', archive: true, streamArchive: true, keepInWorkspace: true, compress: false
+                          echo "Kept in workspace: ${fileExists('hello.tar')}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Archived hello.tar while compressing", run);
+        j.assertLogContains("In workspace: false", run);
+        j.assertLogContains("Kept in workspace: true", run);
+        verifyArchivedHello(run, "");
+    }
+
+    @Test
+    void reproducibleTar() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            writeFile file: 'sub/goodbye.txt', text: 'Goodbye World!'
+                          }
+                          tar file: 'first.tgz', dir: 'src', reproducible: true
+                          touch file: 'src/hello.txt', timestamp: 10000
+                          touch file: 'src/sub/goodbye.txt', timestamp: 20000
+                          tar file: 'second.tgz', dir: 'src', reproducible: true
+                          echo "Identical: ${sha256('first.tgz') == sha256('second.tgz')}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Identical: true", run);
+    }
+
+    @Test
+    void storedTar() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('hello') {
+                            writeFile file: 'big.txt', text: '0123456789abcdef' * 131072
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                          }
+                          tar file: 'hello.tgz', dir: 'hello', store: true
+                          def tars = findFiles glob: 'hello.tgz'
+                          echo "Stored: ${tars[0].length % 10240 == 0 && tars[0].length > 2097152}"
+                          dir('out') {
+                            untar file: '../hello.tgz', quiet: true
+                            String txt = readFile 'hello.txt'
+                            echo "Reading: ${txt}"
+                            txt = readFile 'big.txt'
+                            echo "Length: ${txt.length()}"
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compressed 2 entries.", run);
+        j.assertLogContains("Stored: true", run);
+        j.assertLogContains("Reading: Hello World!", run);
+        j.assertLogContains("Length: 2097152", run);
+    }
+
     @Test
     void shouldNotPutOutputArchiveIntoItself() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
@@ -184,6 +266,43 @@ class TarStepTest {
         verifyArchivedHello(run, "hello/");
     }
 
+    @Test
+    void listedFilesArchivedTar() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'hello.outer', text: 'Hello Outer World!'
+                          dir('hello') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                          }
+                          def found = findFiles(glob: '**/*.txt')
+                          def paths = []
+                          for (int i = 0; i < found.length; i++) {
+                            paths << found[i].path
+                          }
+                          tar file: 'hello.tar', files: paths.join('\\n'), archive: true, compress: false
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compress 1 files from", run);
+        verifyArchivedHello(run, "hello/");
+    }
+
+    @Test
+    void listedFilesWithGlobShouldFail() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'hello.txt', text: 'Hello World!'
+                          tar file: 'hello.tar', files: 'hello.txt', glob: '*.txt'
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0));
+        j.assertLogContains("files can't be combined with glob or exclude.", run);
+    }
+
     @Test
     void excludedPatternWithAll() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
@@ -31,9 +31,16 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import hudson.model.Label;
 import hudson.model.Result;
 import java.io.File;
+import java.io.OutputStream;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
 import org.jenkinsci.plugins.pipeline.utility.steps.DecompressStepExecution;
 import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
@@ -42,6 +49,7 @@ import org.jenkinsci.plugins.workflow.steps.StepConfigTester;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.jvnet.hudson.test.Issue;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
@@ -67,7 +75,13 @@ class UnTarStepTest {
         UnTarStep step = new UnTarStep("target/my.tgz");
         step.setDir("base/");
         step.setGlob("**/*.tgz");
+        step.setExclude("old/**");
         step.setQuiet(false);
+        step.setExtractThreads(4);
+        step.setExtractMemoryLimit(16);
+        step.setIndex(true);
+        step.setKeepTimestamps(true);
+        step.setKeepLinks(true);
 
         UnTarStep step2 = new StepConfigTester(j).configRoundTrip(step);
         j.assertEqualDataBoundBeans(step, step2);
@@ -133,6 +147,34 @@ class UnTarStepTest {
         j.assertLogContains("Reading: Hello World2!", run);
     }
 
+    @Test
+    void multipleGlobsUntar() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('compressIt') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            writeFile file: 'hello.dat', text: 'Hello World!'
+                            writeFile file: 'hello.log', text: 'Hello World!'
+                            dir('two') {
+                              writeFile file: 'hello.txt', text: 'Hello World2!'
+                            }
+                            tar file: '../hello.tar.gz'
+                          }
+                          dir('decompressIt') {
+                            untar file: '../hello.tar.gz', glob: '**/*.txt, *.dat', exclude: 'two/'
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Extracting: hello.txt ->", run);
+        j.assertLogContains("Extracting: hello.dat ->", run);
+        j.assertLogNotContains("Extracting: hello.log ->", run);
+        j.assertLogNotContains("Extracting: two/hello.txt ->", run);
+        j.assertLogContains("Extracted: 2 files", run);
+    }
+
     @Test
     void tarTest() throws Exception {
         Assumptions.assumeTrue(File.pathSeparatorChar == ':', "Can only run in a gnu unix environment");
@@ -178,6 +220,28 @@ class UnTarStepTest {
         j.assertBuildStatusSuccess(p.scheduleBuild2(0));
     }
 
+    @Test
+    void testTarGZTestingBrokenGzipTrailer() throws Exception {
+        /*
+        The tar data is intact but the CRC in the gzip trailer is not,
+        which is only found if the compressed data is read to its very end.
+        */
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        URL resource = getClass().getResource("test_ok.tar.gz");
+        byte[] data = Files.readAllBytes(new File(URLDecoder.decode(resource.getPath(), StandardCharsets.UTF_8)).toPath());
+        data[data.length - 6] ^= 1;
+        File broken = new File(j.jenkins.getRootDir(), "broken_trailer.tar.gz");
+        Files.write(broken.toPath(), data);
+        p.setDefinition(new CpsFlowDefinition(
+                "node {\n" + "  def result = untar file: '"
+                        + separatorsToSystemEscaped(broken.getAbsolutePath().replace('\\', '/')) + "', test: true\n" + "  if (result)\n"
+                        + "      error('Should be corrupt!')\n"
+                        + "}",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Error validating gzip compressed tar file", run);
+    }
+
     @Test
     void testTarGZTestingOkayTarGZ() throws Exception {
         /*
@@ -269,6 +333,203 @@ class UnTarStepTest {
         j.assertLogContains("Reading: Hello World2!", run);
     }
 
+    @Test
+    void untarParallelCompressed() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('compressIt') {
+                            writeFile file: 'big.txt', text: '0123456789abcdef' * 262144
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            tar file: '../hello.tgz', compressionThreads: 4
+                          }
+                          def valid = untar file: 'hello.tgz', test: true
+                          echo "Valid: ${valid}"
+                          dir('decompressIt') {
+                            untar file: '../hello.tgz', quiet: true
+                            String txt = readFile 'hello.txt'
+                            echo "Reading: ${txt}"
+                            txt = readFile 'big.txt'
+                            echo "Length: ${txt.length()}"
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Valid: true", run);
+        j.assertLogContains("Extracted: 2 files", run);
+        j.assertLogContains("Reading: Hello World!", run);
+        j.assertLogContains("Length: 4194304", run);
+    }
+
+    @Test
+    void untarPipelined() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('compressIt') {
+                            for (int i = 0; i < 20; i++) {
+                              writeFile file: "dir${i % 3}/hello${i}.txt", text: "Hello World ${i}!"
+                            }
+                            writeFile file: 'big.txt', text: '0123456789abcdef' * 65536
+                            tar file: '../hello.tgz'
+                          }
+                          dir('decompressIt') {
+                            untar file: '../hello.tgz', quiet: true, extractThreads: 4, extractMemoryLimit: 1
+                            String txt = readFile 'dir2/hello17.txt'
+                            echo "Reading: ${txt}"
+                            txt = readFile 'big.txt'
+                            echo "Length: ${txt.length()}"
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Extracted: 21 files", run);
+        j.assertLogContains("Reading: Hello World 17!", run);
+        j.assertLogContains("Length: 1048576", run);
+    }
+
+    @Test
+    void untarPipelinedDuplicateEntries(@TempDir File tmp) throws Exception {
+        File tar = new File(tmp, "duplicates.tar");
+        try (OutputStream out = Files.newOutputStream(tar.toPath());
+             TarArchiveOutputStream tarOut = new TarArchiveOutputStream(out)) {
+            // a large pooled write followed by a small one, a small pooled write followed by one too large to pool
+            addEntry(tarOut, "a.txt", "a".repeat(200_000));
+            addEntry(tarOut, "a.txt", "last a");
+            addEntry(tarOut, "b.txt", "first b");
+            addEntry(tarOut, "b.txt", "b".repeat(512 * 1024));
+            for (int i = 0; i < 20; i++) {
+                addEntry(tarOut, "c.txt", "c" + i);
+            }
+        }
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                "node('slaves') {\n"
+                        + "  untar file: '" + separatorsToSystemEscaped(tar.getAbsolutePath()) + "', quiet: true, extractThreads: 4, extractMemoryLimit: 1\n"
+                        + "  echo \"a: ${readFile 'a.txt'}\"\n"
+                        + "  echo \"b: ${readFile('b.txt').length()}\"\n"
+                        + "  echo \"c: ${readFile 'c.txt'}\"\n"
+                        + "}",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("a: last a", run);
+        j.assertLogContains("b: 524288", run);
+        j.assertLogContains("c: c19", run);
+    }
+
+    private static void addEntry(TarArchiveOutputStream tarOut, String name, String content) throws Exception {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(data.length);
+        tarOut.putArchiveEntry(entry);
+        tarOut.write(data);
+        tarOut.closeArchiveEntry();
+    }
+
+    @Test
+    void indexedUntar() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('compressIt') {
+                            for (int i = 0; i < 20; i++) {
+                              writeFile file: "dir${i % 3}/hello${i}.txt", text: "Hello World ${i}!"
+                            }
+                            writeFile file: 'big.txt', text: '0123456789abcdef' * 262144
+                            tar file: '../hello.tgz', index: true
+                            tar file: '../hello.tar', compression: 'none', index: true
+                          }
+                          dir('decompressIt') {
+                            untar file: '../hello.tgz', glob: 'dir2/hello17.txt', index: true
+                            String txt = readFile 'dir2/hello17.txt'
+                            echo "Reading: ${txt}"
+                            untar file: '../hello.tar', glob: 'big.txt', index: true
+                            txt = readFile 'big.txt'
+                            echo "Length: ${txt.length()}"
+                          }
+                          dir('fullRead') {
+                            untar file: '../hello.tgz', glob: '**/*.txt', index: true, quiet: true
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("hello.tgz using its index", run);
+        j.assertLogContains("hello.tar using its index", run);
+        j.assertLogContains("Extracted: 1 files", run);
+        j.assertLogContains("Reading: Hello World 17!", run);
+        j.assertLogContains("Length: 4194304", run);
+        j.assertLogContains("Extracted: 21 files", run);
+    }
+
+    @Test
+    void indexOfAnotherTarIsNotUsed() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        Path tar = new File(j.jenkins.getWorkspaceFor(p).getRemote(), "names.tar").toPath();
+        Files.createDirectories(tar.getParent());
+        try (OutputStream out = Files.newOutputStream(tar);
+             TarArchiveOutputStream tarOut = new TarArchiveOutputStream(out)) {
+            for (int i = 1; i <= 4; i++) {
+                addEntry(tarOut, "file" + i + ".txt", "content " + i);
+            }
+        }
+        // the same length and modification time, but the entries are in a different order
+        TarIndex index = new TarIndex(TarCompression.NONE);
+        for (int i = 1; i <= 4; i++) {
+            index.addEntry("file" + (5 - i) + ".txt", (i - 1) * 1024L);
+        }
+        index.setArchive(tar);
+        index.write(TarIndex.pathOf(tar));
+
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node {
+                          untar file: 'names.tar', dir: 'out', glob: 'file4.txt', index: true
+                          echo "Read: ${readFile 'out/file4.txt'}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("The index does not match ", run);
+        j.assertLogContains("Read: content 4", run);
+    }
+
+    @Test
+    void untarCompressionCodecs() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('compressIt') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            tar file: '../hello.tar.bz2', compression: 'bzip2', level: 1
+                            tar file: '../hello.tar.lz4', compression: 'lz4'
+                            tar file: '../hello.tar.xz', compression: 'xz', level: 1
+                            tar file: '../hello.tar.zst', compression: 'zstd', level: 19
+                          }
+                          for (String name : ['hello.tar.bz2', 'hello.tar.lz4', 'hello.tar.xz', 'hello.tar.zst']) {
+                            def valid = untar file: name, test: true
+                            echo "Valid ${name}: ${valid}"
+                            dir("decompress-${name}") {
+                              untar file: "../${name}"
+                              String txt = readFile 'hello.txt'
+                              echo "Reading ${name}: ${txt}"
+                            }
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Valid hello.tar.bz2: true", run);
+        j.assertLogContains("Valid hello.tar.lz4: true", run);
+        j.assertLogContains("Reading hello.tar.bz2: Hello World!", run);
+        j.assertLogContains("Reading hello.tar.lz4: Hello World!", run);
+        j.assertLogContains("Valid hello.tar.xz: true", run);
+        j.assertLogContains("Reading hello.tar.xz: Hello World!", run);
+        j.assertLogContains("Valid hello.tar.zst: true", run);
+        j.assertLogContains("Reading hello.tar.zst: Hello World!", run);
+    }
+
     @Test
     void untarKeepPermissions() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
@@ -298,6 +559,95 @@ class UnTarStepTest {
         j.assertLogContains("Hello World!", run);
     }
 
+    @Test
+    void untarLinksAndTimestamps() throws Exception {
+        assumeTrue(File.pathSeparatorChar == ':', "Can only run in a gnu unix environment");
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('compressIt') {
+                            writeFile file: 'ro/hello.txt', text: 'Hello World!'
+                            sh 'ln -s ro/hello.txt link.txt && touch -d 2001-02-03 ro/hello.txt && chmod 555 ro'
+                            tar file: '../hello.tar', compression: 'none'
+                            sh 'chmod 755 ro'
+                          }
+                          dir('skipped') {
+                            untar file: '../hello.tar'
+                            echo "Link exists: ${fileExists('link.txt')}"
+                          }
+                          dir('decompressIt') {
+                            untar file: '../hello.tar', keepLinks: true, keepTimestamps: true
+                            echo "Reading: ${readFile 'link.txt'}"
+                            echo sh(script: 'test -L link.txt && echo Symbolic link', returnStdout: true).trim()
+                            echo "Year: ${sh(script: 'date -r ro/hello.txt +%Y', returnStdout: true).trim()}"
+                            echo "Mode: ${sh(script: 'stat -c %a ro', returnStdout: true).trim()}"
+                            sh 'chmod 755 ro'
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Skipping link: link.txt -> ro/hello.txt", run);
+        j.assertLogContains("Link exists: false", run);
+        j.assertLogContains("Linking: link.txt -> ro/hello.txt", run);
+        j.assertLogContains("Reading: Hello World!", run);
+        j.assertLogContains("Symbolic link", run);
+        j.assertLogContains("Year: 2001", run);
+        j.assertLogContains("Mode: 555", run);
+    }
+
+    @Test
+    void untarLinkOutOfBoundsShouldFail() throws Exception {
+        assumeTrue(File.pathSeparatorChar == ':', "Can only run in a gnu unix environment");
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'outside.txt', text: 'Secret'
+                          dir('compressIt') {
+                            sh 'ln -s ../outside.txt escape.txt'
+                            tar file: '../escape.tar', compression: 'none'
+                          }
+                          dir('decompressIt') {
+                            untar file: '../escape.tar', keepLinks: true
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.buildAndAssertStatus(Result.FAILURE, p);
+        j.assertLogContains("escape.txt -> ../outside.txt is out of bounds!", run);
+    }
+
+    @Test
+    void untarLinkChainOutOfBoundsShouldFail(@TempDir File tmp) throws Exception {
+        assumeTrue(File.pathSeparatorChar == ':', "Can only run in a gnu unix environment");
+        File tar = new File(tmp, "chain.tar");
+        try (OutputStream out = Files.newOutputStream(tar.toPath());
+             TarArchiveOutputStream tarOut = new TarArchiveOutputStream(out)) {
+            // inside the destination while y doesn't exist, three levels up once y links to the destination
+            addSymbolicLink(tarOut, "x", "y/y/y/../../..");
+            addSymbolicLink(tarOut, "y", ".");
+        }
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                "node {\n"
+                        + "  dir('a/b/c') {\n"
+                        + "    untar file: '" + separatorsToSystemEscaped(tar.getAbsolutePath()) + "', keepLinks: true\n"
+                        + "  }\n"
+                        + "}",
+                true));
+        WorkflowRun run = j.buildAndAssertStatus(Result.FAILURE, p);
+        j.assertLogContains("x -> y/y/y/../../.. is out of bounds!", run);
+        File extracted = new File(j.jenkins.getWorkspaceFor(p).getRemote(), "a/b/c");
+        assertFalse(Files.exists(new File(extracted, "x").toPath(), LinkOption.NOFOLLOW_LINKS), "the link out was deleted");
+    }
+
+    private static void addSymbolicLink(TarArchiveOutputStream tarOut, String name, String target) throws Exception {
+        TarArchiveEntry entry = new TarArchiveEntry(name, TarConstants.LF_SYMLINK);
+        entry.setLinkName(target);
+        tarOut.putArchiveEntry(entry);
+        tarOut.closeArchiveEntry();
+    }
+
     @Test
     @Issue("SECURITY-2196")
     void testingAbsolutePathsShouldFail() throws Exception {
@@ -25,6 +25,7 @@
 package org.jenkinsci.plugins.pipeline.utility.steps.zip;
 
 import static org.jenkinsci.plugins.pipeline.utility.steps.FilenameTestsUtils.separatorsToSystemEscaped;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
@@ -66,9 +67,17 @@ class UnZipStepTest {
         UnZipStep step = new UnZipStep("target/my.zip");
         step.setDir("base/");
         step.setGlob("**/*.zip");
+        step.setExclude("old/**");
         step.setRead(true);
+        step.setList(true);
+        step.setReadLimit(1024);
+        step.setReadTotalLimit(4096);
+        step.setTruncate(true);
+        step.setBinary("base64");
+        step.setReport(true);
         step.setQuiet(false);
         step.setCharset("");
+        step.setExtractThreads(4);
 
         UnZipStep step2 = new StepConfigTester(j).configRoundTrip(step);
         j.assertEqualDataBoundBeans(step, step2);
@@ -103,6 +112,34 @@ class UnZipStepTest {
         j.assertLogContains("Reading: Hello World!", run);
     }
 
+    @Test
+    void parallelUnZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('zipIt') {
+                            for (int i = 0; i < 20; i++) {
+                              writeFile file: "dir${i % 3}/hello${i}.txt", text: "Hello World ${i}!"
+                            }
+                            writeFile file: 'big.txt', text: '0123456789abcdef' * 65536
+                            zip zipFile: '../hello.zip'
+                          }
+                          dir('unzip') {
+                            unzip zipFile: '../hello.zip', extractThreads: 4, quiet: true
+                            String txt = readFile 'dir2/hello17.txt'
+                            echo "Reading: ${txt}"
+                            txt = readFile 'big.txt'
+                            echo "Length: ${txt.length()}"
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Extracted: 21 files", run);
+        j.assertLogContains("Reading: Hello World 17!", run);
+        j.assertLogContains("Length: 1048576", run);
+    }
+
     @Test
     void globUnZip() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
@@ -134,6 +171,65 @@ class UnZipStepTest {
         j.assertLogContains("Reading: Hello World2!", run);
     }
 
+    @Test
+    void multipleGlobsUnZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('zipIt') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            writeFile file: 'hello.dat', text: 'Hello World!'
+                            writeFile file: 'hello.log', text: 'Hello World!'
+                            dir('two') {
+                              writeFile file: 'hello.txt', text: 'Hello World2!'
+                            }
+                            zip zipFile: '../hello.zip'
+                          }
+                          dir('unzip') {
+                            unzip zipFile: '../hello.zip', glob: '**/*.txt, *.dat', exclude: 'two/'
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Extracting: hello.txt ->", run);
+        j.assertLogContains("Extracting: hello.dat ->", run);
+        j.assertLogNotContains("Extracting: hello.log ->", run);
+        j.assertLogNotContains("Extracting: two/hello.txt ->", run);
+        j.assertLogContains("Extracted: 2 files", run);
+    }
+
+    @Test
+    void listUnZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('zipIt') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            writeFile file: 'hello.dat', text: 'Hello World!'
+                            dir('two') {
+                              writeFile file: 'hello.txt', text: 'Hello World2!'
+                            }
+                            zip zipFile: '../hello.zip'
+                          }
+                          dir('unzip') {
+                            def entries = unzip zipFile: '../hello.zip', glob: '**/*.txt', list: true
+                            for (def entry : entries) {
+                              echo "Entry: ${entry.name} ${entry.size} ${entry.directory} ${entry.crc > 0} ${entry.compressedSize > 0} ${entry.lastModified > 0}"
+                            }
+                            echo "Extracted: ${fileExists('hello.txt')}"
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Entry: hello.txt 12 false true true true", run);
+        j.assertLogContains("Entry: two/hello.txt 13 false true true true", run);
+        j.assertLogNotContains("Entry: hello.dat", run);
+        j.assertLogContains("Listed: 2 entries", run);
+        j.assertLogContains("Extracted: false", run);
+    }
+
     @Test
     void globReading() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
@@ -157,6 +253,67 @@ class UnZipStepTest {
         j.assertLogContains("Text: Hello World!", run);
     }
 
+    @Test
+    void readingWithLimits() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('zipIt') {
+                            writeFile file: 'a.txt', text: 'Hello World!'
+                            writeFile file: 'b.txt', text: 'Hello World!'
+                            writeFile file: 'c.bin', text: 'AAEC', encoding: 'Base64'
+                            writeFile file: 'd.txt', text: 'Hello World!'
+                          }
+                          zip zipFile: 'hello.zip', dir: 'zipIt'
+                          def txt = unzip zipFile: 'hello.zip', read: true, readLimit: 5, readTotalLimit: 12, truncate: true, binary: 'base64'
+                          echo "Text: ${txt['a.txt']}|${txt['b.txt']}|${txt['c.bin']}|${txt.containsKey('d.txt')}"
+                          txt = unzip zipFile: 'hello.zip', read: true, binary: 'skip'
+                          echo "Skipped: ${txt.containsKey('c.bin')} ${txt.size()}"
+                          unzip zipFile: 'hello.zip', read: true, readLimit: 5
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0));
+        j.assertLogContains("Text: Hello|Hello|AAE=|false", run);
+        j.assertLogContains("Skipping: d.txt, the total read limit of 12 bytes is reached", run);
+        j.assertLogContains("Skipped: false 3", run);
+        j.assertLogContains("a.txt is larger than the read limit of 5 bytes", run);
+    }
+
+    @Test
+    void readManyFilesFromAgent() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('zipIt') {
+                            for (int i = 0; i < 300; i++) {
+                              writeFile file: "f${i}.txt", text: "${i}:" + 'x' * 4000
+                            }
+                          }
+                          zip zipFile: 'many.zip', dir: 'zipIt'
+                          def txt = unzip zipFile: 'many.zip', read: true, quiet: true
+                          int differ = 0
+                          for (int i = 0; i < 300; i++) {
+                            if (txt["f${i}.txt".toString()] != "${i}:" + 'x' * 4000) {
+                              differ++
+                            }
+                          }
+                          echo "Read ${txt.size()} files, ${differ} differ"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Read 300 files, 0 differ", run);
+    }
+
+    @Test
+    void readTotalLimitIsBoundedByDefault() throws Exception {
+        UnZipStep step = new UnZipStep("my.zip");
+        assertEquals(UnZipStep.DEFAULT_READ_TOTAL_LIMIT, step.getReadTotalLimit());
+        step.setReadTotalLimit(0);
+        assertEquals(0, step.getReadTotalLimit());
+    }
+
     @Test
     void globReadingMore() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
@@ -246,6 +403,51 @@ class UnZipStepTest {
         j.assertBuildStatusSuccess(p.scheduleBuild2(0));
     }
 
+    @Test
+    void testZipTestingReport() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        String broken = new File(URLDecoder.decode(getClass().getResource("test_broken.zip").getPath(), StandardCharsets.UTF_8))
+                .getAbsolutePath()
+                .replace('\\', '/');
+        String ok = new File(URLDecoder.decode(getClass().getResource("test_ok.zip").getPath(), StandardCharsets.UTF_8))
+                .getAbsolutePath()
+                .replace('\\', '/');
+        p.setDefinition(new CpsFlowDefinition(
+                "node {\n"
+                        + "  def report = unzip zipFile: '" + separatorsToSystemEscaped(ok) + "', test: true, report: true, extractThreads: 4\n"
+                        + "  echo \"Okay: ${report.valid} ${report.entriesVerified} ${report.bytesVerified} ${report.badEntries}\"\n"
+                        + "  report = unzip zipFile: '" + separatorsToSystemEscaped(broken) + "', test: true, report: true, extractThreads: 4\n"
+                        + "  echo \"Broken: ${report.valid} ${report.entriesVerified} ${report.badEntries}\"\n"
+                        + "}",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Okay: true 1 591 []", run);
+        j.assertLogContains("Broken: false 0 [test.txt]", run);
+        j.assertLogContains("Checksum error in : ", run);
+    }
+
+    @Test
+    void testZipTestingReportOfMissingFile() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node {
+                          def report = unzip zipFile: 'missing.zip', test: true, report: true
+                          echo "Missing: ${report.valid} ${report.entriesVerified} ${report.errors.size()}"
+                          writeFile file: 'folder.zip/a.txt', text: 'a'
+                          report = unzip zipFile: 'folder.zip', test: true, report: true
+                          echo "Folder: ${report.valid} ${report.entriesVerified} ${report.errors.size()}"
+                          echo "Plain: ${unzip zipFile: 'missing.zip', test: true}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Missing: false 0 1", run);
+        j.assertLogContains("missing.zip does not exist.", run);
+        j.assertLogContains("Folder: false 0 1", run);
+        j.assertLogContains("folder.zip is a directory.", run);
+        j.assertLogContains("Plain: false", run);
+    }
+
     @Test
     void unzipQuiet() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
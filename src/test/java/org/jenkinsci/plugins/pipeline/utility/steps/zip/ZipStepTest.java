@@ -25,11 +25,19 @@
 package org.jenkinsci.plugins.pipeline.utility.steps.zip;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import hudson.FilePath;
 import hudson.model.Label;
 import hudson.model.Result;
 import hudson.model.Run;
+import hudson.model.Slave;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
 import java.util.Scanner;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -68,6 +76,15 @@ class ZipStepTest {
         step.setExclude("**/*.txt");
         step.setArchive(true);
         step.setOverwrite(true);
+        step.setParallelism(4);
+        step.setStore(true);
+        step.setLevel(0);
+        step.setUpdate(true);
+        step.setStreamArchive(true);
+        step.setKeepInWorkspace(true);
+        step.setReproducible(true);
+        step.setScanThreads(4);
+        step.setFiles("a/one.txt\nb/two.txt");
 
         ZipStep step2 = new StepConfigTester(j).configRoundTrip(step);
         j.assertEqualDataBoundBeans(step, step2);
@@ -93,6 +110,52 @@ class ZipStepTest {
         verifyArchivedHello(run, "");
     }
 
+    @Test
+    void streamedArchivedZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('hello') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                          }
+                          zip zipFile: 'hello.zip', dir: 'hello', archive: true, streamArchive: true
+                          echo "In workspace: ${fileExists('hello.zip')}"
+                          zip zipFile: 'hello.zip', dir: 'hello', archive: true, streamArchive: true, keepInWorkspace: true
+                          echo "Kept in workspace: ${fileExists('hello.zip')}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Archived hello.zip while compressing", run);
+        j.assertLogContains("In workspace: false", run);
+        j.assertLogContains("Kept in workspace: true", run);
+        verifyArchivedHello(run, "");
+    }
+
+    @Test
+    void streamedArchiveFromAgentIsComplete() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        Slave agent = (Slave) Label.get("slaves").getNodes().iterator().next();
+        FilePath workspace = agent.getWorkspaceFor(p);
+        assertNotNull(workspace);
+        // random content doesn't compress, so the archive is several MB sent in many chunks
+        byte[] data = new byte[8 * 1024 * 1024];
+        new Random(42).nextBytes(data);
+        workspace.child("data/random.bin").copyFrom(new ByteArrayInputStream(data));
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          zip zipFile: 'big.zip', dir: 'data', archive: true, streamArchive: true, keepInWorkspace: true
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Archived big.zip while compressing", run);
+        byte[] kept = Files.readAllBytes(Paths.get(workspace.child("big.zip").getRemote()));
+        byte[] archived = Files.readAllBytes(new File(run.getArtifactsDir(), "big.zip").toPath());
+        assertTrue(kept.length > data.length);
+        assertArrayEquals(kept, archived);
+    }
+
     @Test
     void shouldNotPutOutputArchiveIntoItself() throws Exception {
 
@@ -283,6 +346,174 @@ class ZipStepTest {
         j.assertLogContains("Compressed 1 entries.", run);
     }
 
+    @Test
+    void parallelArchivedZip() throws Exception {
+
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            for (int i = 0; i < 20; i++) {
+                              writeFile file: "dir${i % 3}/file${i}.txt", text: "Hello World ${i}!"
+                            }
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                          }
+                          zip zipFile: 'parallel.zip', dir: 'src', parallelism: 4
+                          dir('out') {
+                            unzip zipFile: '../parallel.zip', quiet: true
+                            String txt = readFile 'dir2/file17.txt'
+                            echo "Reading: ${txt}"
+                          }
+                          def valid = unzip zipFile: 'parallel.zip', test: true
+                          echo "Valid: ${valid}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compressed 21 entries.", run);
+        j.assertLogContains("Extracted: 21 files", run);
+        j.assertLogContains("Reading: Hello World 17!", run);
+        j.assertLogContains("Valid: true", run);
+    }
+
+    @Test
+    void storedZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'big.txt', text: '0123456789abcdef' * 131072
+                            writeFile file: 'medium.txt', text: '0123456789abcdef' * 32768
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                          }
+                          zip zipFile: 'stored.zip', dir: 'src', store: true
+                          def zips = findFiles glob: 'stored.zip'
+                          echo "Stored: ${zips[0].length > 2097152}"
+                          def valid = unzip zipFile: 'stored.zip', test: true
+                          echo "Valid: ${valid}"
+                          dir('out') {
+                            unzip zipFile: '../stored.zip', quiet: true
+                            String txt = readFile 'hello.txt'
+                            echo "Reading: ${txt}"
+                            txt = readFile 'big.txt'
+                            echo "Length: ${txt.length()}"
+                            txt = readFile 'medium.txt'
+                            echo "Medium: ${txt == '0123456789abcdef' * 32768}"
+                          }
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compressed 3 entries.", run);
+        j.assertLogContains("Medium: true", run);
+        j.assertLogContains("Stored: true", run);
+        j.assertLogContains("Valid: true", run);
+        j.assertLogContains("Reading: Hello World!", run);
+        j.assertLogContains("Length: 2097152", run);
+    }
+
+    @Test
+    void updateZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            writeFile file: 'goodbye.txt', text: 'Goodbye World!'
+                          }
+                          zip zipFile: 'update.zip', dir: 'src'
+                          dir('src') {
+                            writeFile file: 'hello.txt', text: 'Hello Again!'
+                            writeFile file: 'new.txt', text: 'New World!'
+                          }
+                          zip zipFile: 'update.zip', dir: 'src', update: true
+                          def valid = unzip zipFile: 'update.zip', test: true
+                          echo "Valid: ${valid}"
+                          def files = unzip zipFile: 'update.zip', read: true
+                          echo "Hello: ${files['hello.txt']}"
+                          echo "Goodbye: ${files['goodbye.txt']}"
+                          echo "New: ${files['new.txt']}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compressed 3 entries.", run);
+        j.assertLogContains("Valid: true", run);
+        j.assertLogContains("Hello: Hello Again!", run);
+        j.assertLogContains("Goodbye: Goodbye World!", run);
+        j.assertLogContains("New: New World!", run);
+    }
+
+    @Test
+    void updateZipKeepsPermissions() throws Exception {
+        assumeTrue(File.pathSeparatorChar == ':', "Can only run in a gnu unix environment");
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'src/hello.txt', text: 'Hello World!'
+                          zip zipFile: 'update.zip', dir: 'src'
+                          sh 'chmod 664 update.zip'
+                          writeFile file: 'src/hello.txt', text: 'Hello Again!'
+                          zip zipFile: 'update.zip', dir: 'src', update: true
+                          echo "Mode: ${sh(script: 'stat -c %a update.zip', returnStdout: true).trim()}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Mode: 664", run);
+    }
+
+    @Test
+    void listedFilesZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          def found
+                          dir('src') {
+                            writeFile file: 'a/hello.txt', text: 'Hello World!'
+                            writeFile file: 'b/goodbye.txt', text: 'Goodbye World!'
+                            writeFile file: 'b/skip.log', text: 'Log'
+                            writeFile file: 'b/one,two.txt', text: 'Comma'
+                            found = findFiles glob: '**/*.txt'
+                          }
+                          def paths = []
+                          for (int i = 0; i < found.length; i++) {
+                            paths << found[i].path
+                          }
+                          zip zipFile: 'found.zip', dir: 'src', files: paths.join('\\n')
+                          def files = unzip zipFile: 'found.zip', read: true
+                          echo "Found: ${files.keySet().sort()}"
+                          echo "Comma: ${files['b/one,two.txt']}"
+                          zip zipFile: 'paths.zip', dir: 'src', files: 'b/skip.log\\n a/hello.txt'
+                          files = unzip zipFile: 'paths.zip', read: true
+                          echo "Paths: ${files.keySet().sort()}"
+                          echo "Hello: ${files['a/hello.txt']}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compress 3 files from", run);
+        j.assertLogContains("Found: [a/hello.txt, b/goodbye.txt, b/one,two.txt]", run);
+        j.assertLogContains("Comma: Comma", run);
+        j.assertLogContains("Paths: [a/hello.txt, b/skip.log]", run);
+        j.assertLogContains("Hello: Hello World!", run);
+    }
+
+    @Test
+    void listedFilesOutsideDirShouldFail() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          writeFile file: 'secret.txt', text: 'Secret'
+                          writeFile file: 'src/hello.txt', text: 'Hello World!'
+                          zip zipFile: 'out.zip', dir: 'src', files: 'hello.txt,../secret.txt'
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0));
+        j.assertLogContains("../secret.txt is not inside", run);
+    }
+
     private void verifyArchivedHello(WorkflowRun run, String basePath) throws IOException {
         assertTrue(run.getHasArtifacts(), "Build should have artifacts");
         Run<WorkflowJob, WorkflowRun>.Artifact artifact = run.getArtifacts().get(0);
@@ -314,6 +545,76 @@ class ZipStepTest {
         }
     }
 
+    @Test
+    void parallelScannedZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            for (int i = 0; i < 20; i++) {
+                              writeFile file: "dir${i % 4}/sub${i % 3}/file${i}.txt", text: "File ${i}"
+                              writeFile file: "dir${i % 4}/file${i}.log", text: "Log ${i}"
+                            }
+                          }
+                          zip zipFile: 'scanned.zip', dir: 'src', glob: '**/*.txt', scanThreads: 4
+                          def files = unzip zipFile: 'scanned.zip', read: true
+                          echo "Files: ${files.size()}"
+                          echo "Has logs: ${files.containsKey('dir1/file1.log')}"
+                          echo "File 13: ${files['dir1/sub1/file13.txt']}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Compressed 20 entries.", run);
+        j.assertLogContains("Files: 20", run);
+        j.assertLogContains("Has logs: false", run);
+        j.assertLogContains("File 13: File 13", run);
+    }
+
+    @Test
+    void reproducibleZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            writeFile file: 'sub/goodbye.txt', text: 'Goodbye World!'
+                          }
+                          zip zipFile: 'first.zip', dir: 'src', reproducible: true
+                          touch file: 'src/hello.txt', timestamp: 10000
+                          touch file: 'src/sub/goodbye.txt', timestamp: 20000
+                          zip zipFile: 'second.zip', dir: 'src', reproducible: true
+                          echo "Identical: ${sha256('first.zip') == sha256('second.zip')}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Identical: true", run);
+    }
+
+    @Test
+    void updateReproducibleZip() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                        node('slaves') {
+                          dir('src') {
+                            writeFile file: 'hello.txt', text: 'Hello World!'
+                            writeFile file: 'goodbye.txt', text: 'Goodbye World!'
+                          }
+                          zip zipFile: 'update.zip', dir: 'src', reproducible: true
+                          writeFile file: 'src/hello.txt', text: 'Hello Again!'
+                          zip zipFile: 'update.zip', dir: 'src', update: true, reproducible: true
+                          def files = unzip zipFile: 'update.zip', read: true
+                          echo "Hello: ${files['hello.txt']}"
+                          echo "Goodbye: ${files['goodbye.txt']}"
+                        }""",
+                true));
+        WorkflowRun run = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        j.assertLogContains("Hello: Hello Again!", run);
+        j.assertLogContains("Goodbye: Goodbye World!", run);
+    }
+
     @Test
     void defaultExcludesPatternWithAll() throws Exception {
 